@@ -1,34 +1,108 @@
+import csv
 import sys
 import os
 from pathlib import Path
 import xgboost as xgb
 
-def main():
+
+def load_model():
+    model_path = Path(__file__).parent / 'diabetes_xgboost.json'
+    if not model_path.exists():
+        raise FileNotFoundError(f"Model file not found at {model_path}")
+
+    model = xgb.XGBClassifier()
+    model.load_model(model_path)  # Native XGBoost format
+    return model
+
+
+def parse_features(values):
+    if len(values) != 8:
+        raise ValueError("Requires exactly 8 numeric arguments (Pregnancies, Glucose, etc.)")
     try:
-        # 1. Verify correct number of arguments
-        if len(sys.argv) != 9:
-            raise ValueError("Requires exactly 8 numeric arguments (Pregnancies, Glucose, etc.)")
+        return [float(value) for value in values]
+    except ValueError as e:
+        raise ValueError(f"All arguments must be numbers. Error: {str(e)}")
+
+
+def predict_probability(model, data):
+    # Probability of the positive class; the caller applies its own threshold
+    return float(model.predict_proba([data])[0][1])
+
 
-        # 2. Convert inputs to float safely
+def serve():
+    # One request per line: 8 comma-separated numbers in. One line out: the
+    # probability of diabetes, or "ERROR <message>" so the caller stays in sync.
+    model = load_model()
+    print("READY", flush=True)
+    for line in sys.stdin:
+        line = line.strip()
+        if not line:
+            continue
         try:
-            data = [float(arg) for arg in sys.argv[1:9]]
-        except ValueError as e:
-            raise ValueError(f"All arguments must be numbers. Error: {str(e)}")
+            data = parse_features(line.split(','))
+            print(predict_probability(model, data), flush=True)
+        except Exception as e:
+            print(f"PYTHON_ERROR: {str(e)}", file=sys.stderr, flush=True)
+            print(f"ERROR {str(e)}", flush=True)
+
+
+def label_golden(path):
+    # Rewrites the Label column of the golden inputs with XGBClassifier.predict,
+    # so the Java side checks reloaded models against XGBoost itself.
+    model = load_model()
+    with open(path, newline='') as f:
+        rows = list(csv.reader(f))
+    header, body = rows[0], rows[1:]
+    labels = model.predict([parse_features(row[:8]) for row in body])
+    with open(path, 'w', newline='') as f:
+        writer = csv.writer(f, lineterminator='\n')
+        writer.writerow(header)
+        for row, label in zip(body, labels):
+            writer.writerow(row[:8] + [int(label)])
+
+
+def write_parity(path):
+    # Rewrites the Margin and Probability columns of the fixture the Java tests
+    # compare the pure-Java scorer against. Empty cells are missing values.
+    import numpy as np
+    model = load_model()
+    with open(path, newline='') as f:
+        rows = list(csv.reader(f))
+    header, body = rows[0], rows[1:]
+    data = np.array([[float(v) if v else np.nan for v in row[:8]] for row in body],
+                    dtype=np.float32)
+    margins = model.predict(data, output_margin=True)
+    probabilities = model.predict_proba(data)[:, 1]
+    with open(path, 'w', newline='') as f:
+        writer = csv.writer(f, lineterminator='\n')
+        writer.writerow(header)
+        for row, margin, probability in zip(body, margins, probabilities):
+            writer.writerow(row[:8] + [str(margin), str(probability)])
+
+
+def main():
+    try:
+        if len(sys.argv) == 2 and sys.argv[1] == '--serve':
+            serve()
+            return
+        if len(sys.argv) in (2, 3) and sys.argv[1] == '--golden':
+            default = Path(__file__).parent / 'golden_inputs.csv'
+            label_golden(sys.argv[2] if len(sys.argv) == 3 else default)
+            return
+        if len(sys.argv) == 3 and sys.argv[1] == '--parity':
+            write_parity(sys.argv[2])
+            return
 
-        # 3. Load model with absolute path
-        model_path = Path(__file__).parent / 'diabetes_xgboost.json'
-        if not model_path.exists():
-            raise FileNotFoundError(f"Model file not found at {model_path}")
+        # 1. Verify correct number of arguments and convert inputs to float safely
+        data = parse_features(sys.argv[1:])
 
-        # 4. Load and predict
-        model = xgb.XGBClassifier()
-        model.load_model(model_path)  # Native XGBoost format
-        prediction = int(model.predict([data])[0])
-        print(prediction)
+        # 2. Load and predict
+        model = load_model()
+        print(predict_probability(model, data))
 
     except Exception as e:
         print(f"PYTHON_ERROR: {str(e)}", file=sys.stderr)
         sys.exit(1)
 
 if __name__ == "__main__":
-    main()
\ No newline at end of file
+    main()
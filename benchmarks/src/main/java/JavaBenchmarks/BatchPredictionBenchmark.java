@@ -0,0 +1,71 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.XGBoostModel;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Batch scoring at several sizes, against scoring the same rows one at a time. Scores are per
+ * batch; divide by {@code batchSize} for per-row figures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchPredictionBenchmark {
+  @Param({"16", "256", "4096", "65536"})
+  public int batchSize;
+
+  private XGBoostModel model;
+  private double[][] rows;
+  private double[] packed;
+  private double[][] columns;
+  private float[] out;
+
+  @Setup
+  public void setUp() throws IOException {
+    model = XGBoostModel.load(XGBoostModel.DEFAULT_PATH);
+    rows = BenchmarkData.rows(batchSize);
+    packed = BenchmarkData.packed(rows);
+    columns = new double[BenchmarkData.WIDTH][batchSize];
+    for (int r = 0; r < batchSize; r++) {
+      for (int f = 0; f < BenchmarkData.WIDTH; f++) {
+        columns[f][r] = rows[r][f];
+      }
+    }
+    out = new float[batchSize];
+  }
+
+  @Benchmark
+  public float[] packedRows() {
+    model.predictProbabilities(packed, batchSize, out);
+    return out;
+  }
+
+  @Benchmark
+  public float[] columnar() {
+    model.predictProbabilitiesColumnar(columns, batchSize, out);
+    return out;
+  }
+
+  @Benchmark
+  public float[] rowAtATime() {
+    for (int r = 0; r < batchSize; r++) {
+      out[r] = model.predictProbability(rows[r]);
+    }
+    return out;
+  }
+}
@@ -0,0 +1,38 @@
+package JavaBenchmarks;
+
+import java.util.Random;
+
+// Deterministic Pima-shaped inputs shared by the benchmarks
+final class BenchmarkData {
+  static final int WIDTH = 8;
+
+  // Lower and upper bound of each column, in XGBoostModel.FEATURE_NAMES order
+  private static final double[] LOW = {0, 40, 30, 5, 0.5, 10, 0, 1};
+  private static final double[] HIGH = {17, 400, 130, 60, 300, 70, 3, 100};
+
+  private BenchmarkData() {}
+
+  static double[][] rows(int count) {
+    Random random = new Random(42);
+    double[][] rows = new double[count][WIDTH];
+    for (double[] row : rows) {
+      for (int f = 0; f < WIDTH; f++) {
+        // Two decimals, like values typed into the assistant
+        row[f] = Math.round((LOW[f] + random.nextDouble() * (HIGH[f] - LOW[f])) * 100) / 100.0;
+      }
+    }
+    return rows;
+  }
+
+  static double[] packed(double[][] rows) {
+    double[] packed = new double[rows.length * WIDTH];
+    for (int r = 0; r < rows.length; r++) {
+      System.arraycopy(rows[r], 0, packed, r * WIDTH, WIDTH);
+    }
+    return packed;
+  }
+
+  static String pythonCommand() {
+    return System.getProperty("diabetes.python.command", "python");
+  }
+}
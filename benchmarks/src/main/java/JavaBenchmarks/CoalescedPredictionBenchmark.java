@@ -0,0 +1,72 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.MicroBatcher;
+import JavaBackEnd.XGBoostModel;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Many threads scoring one row each, directly or through a MicroBatcher
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class CoalescedPredictionBenchmark {
+  private final double[][] rows = BenchmarkData.rows(1024);
+  private XGBoostModel model;
+  private MicroBatcher batcher;
+
+  @Param({"64"})
+  public int maxRows;
+
+  @Param({"0", "100"})
+  public long maxDelayMicros;
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    int next;
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    model = XGBoostModel.load(XGBoostModel.DEFAULT_PATH);
+    batcher = new MicroBatcher(() -> model, maxRows, maxDelayMicros);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    batcher.close();
+  }
+
+  @Benchmark
+  public float direct(Cursor cursor) {
+    return model.predictProbability(row(cursor));
+  }
+
+  @Benchmark
+  public float coalesced(Cursor cursor) throws IOException {
+    return batcher.predictProbability(row(cursor));
+  }
+
+  private double[] row(Cursor cursor) {
+    double[] row = rows[cursor.next];
+    cursor.next = (cursor.next + 1) & (rows.length - 1);
+    return row;
+  }
+}
@@ -0,0 +1,67 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.TreeExplainer;
+import JavaBackEnd.XGBoostModel;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exact TreeSHAP against the Saabas approximation, one row at a time and as a packed batch. Scores
+ * are per batch of {@value #ROWS} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExplainBenchmark {
+  private static final int ROWS = 200;
+
+  private TreeExplainer explainer;
+  private double[][] rows;
+  private double[] packed;
+  private double[] out;
+  private double[] batchOut;
+
+  @Setup
+  public void setUp() throws IOException {
+    explainer = new TreeExplainer(XGBoostModel.load(XGBoostModel.DEFAULT_PATH));
+    rows = BenchmarkData.rows(ROWS);
+    packed = BenchmarkData.packed(rows);
+    out = new double[BenchmarkData.WIDTH + 1];
+    batchOut = new double[ROWS * (BenchmarkData.WIDTH + 1)];
+  }
+
+  @Benchmark
+  public double[] treeShap() {
+    for (double[] row : rows) {
+      explainer.shap(row, out);
+    }
+    return out;
+  }
+
+  @Benchmark
+  public double[] saabasRowAtATime() {
+    for (double[] row : rows) {
+      explainer.saabas(row, out);
+    }
+    return out;
+  }
+
+  @Benchmark
+  public double[] saabasBatch() {
+    explainer.saabas(packed, ROWS, batchOut);
+    return batchOut;
+  }
+}
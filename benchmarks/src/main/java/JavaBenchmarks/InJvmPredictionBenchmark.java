@@ -0,0 +1,40 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.XGBoostModel;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Single-row scoring with the flattened in-JVM engine
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InJvmPredictionBenchmark {
+  private final double[][] rows = BenchmarkData.rows(1024);
+  private XGBoostModel model;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    model = XGBoostModel.load(XGBoostModel.DEFAULT_PATH);
+  }
+
+  @Benchmark
+  public float singleRow() {
+    double[] row = rows[next];
+    next = (next + 1) & (rows.length - 1);
+    return model.predictProbability(row);
+  }
+}
@@ -0,0 +1,62 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.FeatureSchema;
+import JavaBackEnd.FeatureVector;
+import JavaBackEnd.Json;
+import JavaBackEnd.MeasurementConfig;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Turning user input into a validated feature vector, before any scoring
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputParsingBenchmark {
+  // What the text fields hold, in FeatureVector order
+  private final String[] fields = new String[FeatureVector.WIDTH];
+  private final FeatureVector features = new FeatureVector();
+  private final String requestBody;
+
+  public InputParsingBenchmark() {
+    double[] row = BenchmarkData.rows(1)[0];
+    StringBuilder json = new StringBuilder("{\"" + FeatureSchema.PREGNANCIES + "\":");
+    fields[FeatureVector.PREGNANCIES] = String.valueOf(Math.floor(row[0]));
+    json.append(Math.floor(row[0]));
+    for (MeasurementConfig config : FeatureSchema.MEASUREMENTS) {
+      double value =
+          Math.min(config.absoluteMax, Math.max(config.absoluteMin, row[config.featureIndex()]));
+      fields[config.featureIndex()] = String.valueOf(value);
+      json.append(",\"").append(config.name).append("\":").append(value);
+    }
+    requestBody = json.append('}').toString();
+  }
+
+  // The desktop path: field text -> reused FeatureVector -> range checks and imputation
+  @Benchmark
+  public FeatureVector featureVector() {
+    features.clear();
+    for (int f = 0; f < fields.length; f++) {
+      features.set(f, Double.parseDouble(fields[f]));
+    }
+    FeatureSchema.validate(features);
+    FeatureSchema.fillMissingWithDefaults(features);
+    return features;
+  }
+
+  // The server path: JSON body -> parsed tree
+  @Benchmark
+  public Object jsonBody() {
+    return Json.parse(requestBody);
+  }
+}
@@ -0,0 +1,60 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.ParallelBatchScorer;
+import JavaBackEnd.XGBoostModel;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One large batch scored by {@link ParallelBatchScorer} on 1 to N threads; compare with {@code
+ * threads=1} for the speedup. {@code threads=0} means every available core. Scores are per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelScoringBenchmark {
+  @Param({"1", "2", "4", "0"})
+  public int threads;
+
+  @Param({"1000000"})
+  public int batchSize;
+
+  private ParallelBatchScorer scorer;
+  private double[] packed;
+  private float[] out;
+
+  @Setup
+  public void setUp() throws IOException {
+    XGBoostModel model = XGBoostModel.load(XGBoostModel.DEFAULT_PATH);
+    int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    scorer = new ParallelBatchScorer(model, parallelism);
+    packed = BenchmarkData.packed(BenchmarkData.rows(batchSize));
+    out = new float[batchSize];
+  }
+
+  @TearDown
+  public void tearDown() {
+    scorer.close();
+  }
+
+  @Benchmark
+  public float[] parallel() {
+    scorer.predictProbabilities(packed, batchSize, out);
+    return out;
+  }
+}
@@ -0,0 +1,50 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.PythonWorkerPool;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// One round trip to a persistent predict_diabetes.py --serve worker
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PythonWorkerBenchmark {
+  private final double[][] rows = BenchmarkData.rows(1024);
+  private PythonWorkerPool pool;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    pool =
+        new PythonWorkerPool(
+            BenchmarkData.pythonCommand(), PythonWorkerPool.DEFAULT_SCRIPT, 1, 10_000);
+    // Start the worker outside the measurement
+    pool.predict(rows[0]);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.close();
+  }
+
+  @Benchmark
+  public int persistentWorker() throws IOException {
+    double[] row = rows[next];
+    next = (next + 1) & (rows.length - 1);
+    return pool.predict(row);
+  }
+}
@@ -0,0 +1,74 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.SessionTable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creating sessions and stepping them through the flow, for a table of {@code sessions} live
+ * sessions. {@code fill} is per table, so its {@code gc.alloc.rate.norm} divided by {@code
+ * sessions} bounds the footprint of one session from above; {@code update} is per step of one
+ * session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionTableBenchmark {
+  private static final long TTL_MILLIS = 15 * 60_000;
+
+  @Param({"300000"})
+  public int sessions;
+
+  private SessionTable table;
+  private long[] ids;
+  private int next;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    table = new SessionTable(sessions, TTL_MILLIS);
+    ids = new long[sessions];
+    for (int i = 0; i < sessions; i++) {
+      ids[i] = table.create();
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public SessionTable fill() {
+    SessionTable filled = new SessionTable(sessions, TTL_MILLIS);
+    for (int i = 0; i < sessions; i++) {
+      filled.create();
+    }
+    return filled;
+  }
+
+  // One wrong answer, then a right one, on the next session in turn
+  @Benchmark
+  public Object update() {
+    long id = ids[next];
+    next = next + 1 < sessions ? next + 1 : 0;
+    return table.update(
+        id,
+        session -> {
+          session.restart();
+          session.begin();
+          session.answerPregnant(false);
+          session.answerMeasurement("abc");
+          return session.answerMeasurement("120");
+        });
+  }
+}
@@ -0,0 +1,59 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.FastSigmoid;
+import JavaBackEnd.XGBoostModel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * XGBoost's exact sigmoid against the {@link FastSigmoid} table, over a batch of margins in the
+ * range the model produces. Scores are per batch of {@value #MARGINS}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigmoidBenchmark {
+  private static final int MARGINS = 4096;
+
+  private float[] margins;
+  private float[] out;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    margins = new float[MARGINS];
+    for (int i = 0; i < MARGINS; i++) {
+      margins[i] = (float) (random.nextGaussian() * 3);
+    }
+    out = new float[MARGINS];
+  }
+
+  @Benchmark
+  public float[] exact() {
+    for (int i = 0; i < MARGINS; i++) {
+      out[i] = XGBoostModel.sigmoid(margins[i]);
+    }
+    return out;
+  }
+
+  @Benchmark
+  public float[] table() {
+    for (int i = 0; i < MARGINS; i++) {
+      out[i] = FastSigmoid.apply(margins[i]);
+    }
+    return out;
+  }
+}
@@ -0,0 +1,53 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.PythonWorkerPool;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The original callModel(): one {@code python predict_diabetes.py <8 args>} process per prediction.
+ * Needs a Python with xgboost on the path (or {@code -Ddiabetes.python.command}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SubprocessPredictionBenchmark {
+  private final double[] row = BenchmarkData.rows(1)[0];
+
+  @Benchmark
+  public String spawnPerPrediction() throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(BenchmarkData.pythonCommand());
+    command.add(PythonWorkerPool.DEFAULT_SCRIPT.toString());
+    for (double value : row) {
+      command.add(String.valueOf(value));
+    }
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String prediction = reader.readLine();
+      if (process.waitFor() != 0) {
+        throw new IOException("predict_diabetes.py failed: " + prediction);
+      }
+      return prediction;
+    }
+  }
+}
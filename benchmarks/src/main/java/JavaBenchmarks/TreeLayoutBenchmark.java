@@ -0,0 +1,158 @@
+package JavaBenchmarks;
+
+import JavaBackEnd.CompiledEnsemble;
+import JavaBackEnd.FlatEnsemble;
+import JavaBackEnd.Json;
+import JavaBackEnd.QuantizedEnsemble;
+import JavaBackEnd.XGBoostModel;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link FlatEnsemble} against a naive walk over one object per tree node, the {@link
+ * CompiledEnsemble} and the block-wise batch paths on float thresholds and on {@link
+ * QuantizedEnsemble} bin codes. Scores are per batch of {@code rows} margins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeLayoutBenchmark {
+  @Param({"4096"})
+  public int rows;
+
+  // The layout we replaced: every node is its own heap object
+  private static final class Node {
+    int feature;
+    float threshold;
+    boolean defaultLeft;
+    Node left;
+    Node right;
+    float leafValue;
+
+    boolean isLeaf() {
+      return left == null;
+    }
+  }
+
+  private Node[] objectTrees;
+  private FlatEnsemble flat;
+  private CompiledEnsemble compiled;
+  private QuantizedEnsemble quantized;
+  private double[][] data;
+  private double[] packed;
+  private float[] out;
+
+  @Setup
+  public void setUp() throws IOException {
+    XGBoostModel model = XGBoostModel.load(XGBoostModel.DEFAULT_PATH);
+    flat = model.getFlatEnsemble();
+    compiled = CompiledEnsemble.compile(model);
+    quantized = QuantizedEnsemble.compile(flat);
+    Object json =
+        Json.parse(
+            new String(Files.readAllBytes(XGBoostModel.DEFAULT_PATH), StandardCharsets.UTF_8));
+    List<Object> trees =
+        Json.array(
+            Json.object(Json.object(Json.object(json, "learner"), "gradient_booster"), "model"),
+            "trees");
+    objectTrees = new Node[trees.size()];
+    for (int t = 0; t < objectTrees.length; t++) {
+      objectTrees[t] = toNodes(trees.get(t), 0);
+    }
+    data = BenchmarkData.rows(rows);
+    packed = BenchmarkData.packed(data);
+    out = new float[rows];
+  }
+
+  @Benchmark
+  public float[] objectTree() {
+    for (int r = 0; r < rows; r++) {
+      out[r] = walk(data[r]);
+    }
+    return out;
+  }
+
+  @Benchmark
+  public float[] flatArrays() {
+    for (int r = 0; r < rows; r++) {
+      out[r] = flat.predictMargin(data[r]);
+    }
+    return out;
+  }
+
+  @Benchmark
+  public float[] compiled() {
+    for (int r = 0; r < rows; r++) {
+      out[r] = compiled.predictMargin(data[r]);
+    }
+    return out;
+  }
+
+  @Benchmark
+  public float[] flatBatch() {
+    flat.predictMargins(packed, rows, out);
+    return out;
+  }
+
+  @Benchmark
+  public float[] quantizedBatch() {
+    quantized.predictMargins(packed, 0, rows, out);
+    return out;
+  }
+
+  // Sum of the leaves only; the base margin is the same constant for every layout
+  private float walk(double[] row) {
+    float margin = 0;
+    for (Node node : objectTrees) {
+      while (!node.isLeaf()) {
+        float v = (float) row[node.feature];
+        if (Float.isNaN(v)) {
+          node = node.defaultLeft ? node.left : node.right;
+        } else {
+          node = v < node.threshold ? node.left : node.right;
+        }
+      }
+      margin += node.leafValue;
+    }
+    return margin;
+  }
+
+  private static Node toNodes(Object tree, int id) {
+    Node node = new Node();
+    int left = number(tree, "left_children", id).intValue();
+    // XGBoost stores the leaf value in split_conditions for leaf nodes
+    float condition = number(tree, "split_conditions", id).floatValue();
+    if (left == -1) {
+      node.leafValue = condition;
+      return node;
+    }
+    node.feature = number(tree, "split_indices", id).intValue();
+    node.threshold = condition;
+    node.defaultLeft = number(tree, "default_left", id).intValue() != 0;
+    node.left = toNodes(tree, left);
+    node.right = toNodes(tree, number(tree, "right_children", id).intValue());
+    return node;
+  }
+
+  private static BigDecimal number(Object tree, String key, int id) {
+    return (BigDecimal) Json.array(tree, key).get(id);
+  }
+}
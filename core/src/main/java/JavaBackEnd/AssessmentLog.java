@@ -0,0 +1,551 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only audit trail of every scored assessment: the features as scored, which of them were
+ * imputed, the model that scored them and the probability it gave.
+ *
+ * <p>Records are {@value #RECORD_SIZE} bytes, little-endian, in segment files named after their
+ * first sequence number:
+ *
+ * <pre>
+ * long   sequence, from 0 for the first record in the directory
+ * long   time, epoch milliseconds
+ * int    model fingerprint (see XGBoostModel#getFingerprint), 0 if unknown
+ * float  probability
+ * byte   label at the configured threshold, Source ordinal, imputed mask (bit i: feature i), 0
+ * double 8 features as scored, NaN where left missing
+ * int    CRC32 of the bytes before it
+ * </pre>
+ *
+ * <p>Callers never wait on the disk: {@link #append} claims a slot in a preallocated ring with one
+ * CAS, encodes the record into it and publishes it. A single writer thread drains every published
+ * slot in order with one gathering write and a single {@link FileChannel#force} for the whole
+ * batch, so each sync is shared by everything that arrived while the previous one ran. A full ring
+ * drops the record and counts it in {@link Metrics} rather than block.
+ *
+ * <p>Segments roll over once they pass {@code segmentBytes}, after the batch that filled them.
+ * Opening a log scans the newest segment and truncates a torn tail left by a crash, saving the cut
+ * bytes next to it; older segments were synced before the rollover. An open log holds a lock on
+ * {@value #LOCK_FILE} in its directory, so a second log, in this process or another, fails to open
+ * there instead of appending to the same segment.
+ *
+ * <p>Usage: {@code java JavaBackEnd.AssessmentLog [dir]} prints every record as CSV.
+ */
+public final class AssessmentLog implements AutoCloseable {
+  public static final String DIR_PROPERTY = "diabetes.log.dir";
+  public static final Path DEFAULT_DIR = Paths.get("assessments");
+  public static final int RECORD_SIZE = 96;
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+  public static final long DEFAULT_SEGMENT_BYTES = 16L << 20;
+  private static final int MAGIC = 'D' | 'A' << 8 | 'S' << 16 | 'L' << 24;
+  private static final int VERSION = 1;
+  // magic, version, record size, reserved
+  private static final int HEADER_SIZE = 16;
+  private static final int CHECKED_BYTES = RECORD_SIZE - 4;
+  private static final String PREFIX = "assessments-";
+  private static final String SUFFIX = ".log";
+  private static final String LOCK_FILE = ".lock";
+  // Set on the claim counter by close(), so no record can be claimed after the final drain starts
+  private static final long CLOSED = Long.MIN_VALUE;
+  private static final long IDLE_PARK_NANOS = 10_000_000L;
+
+  public enum Source {
+    ASSISTANT,
+    SERVER
+  }
+
+  /** One decoded record. */
+  public static final class Record {
+    public final long sequence;
+    public final long timeMillis;
+    public final int modelFingerprint;
+    public final float probability;
+    public final int label;
+    public final Source source;
+    public final int imputedMask;
+    public final double[] features;
+
+    private Record(ByteBuffer buffer, int offset) {
+      sequence = buffer.getLong(offset);
+      timeMillis = buffer.getLong(offset + 8);
+      modelFingerprint = buffer.getInt(offset + 16);
+      probability = buffer.getFloat(offset + 20);
+      label = buffer.get(offset + 24);
+      Source[] sources = Source.values();
+      int ordinal = buffer.get(offset + 25);
+      source = ordinal >= 0 && ordinal < sources.length ? sources[ordinal] : null;
+      imputedMask = buffer.get(offset + 26) & 0xFF;
+      features = new double[FeatureVector.WIDTH];
+      for (int f = 0; f < features.length; f++) {
+        features[f] = buffer.getDouble(offset + 28 + 8 * f);
+      }
+    }
+
+    public boolean isImputed(int feature) {
+      return (imputedMask & 1 << feature) != 0;
+    }
+  }
+
+  private final Path dir;
+  private final long segmentBytes;
+  private final int capacity;
+  private final int mask;
+  private final ByteBuffer ring;
+  // published[slot] is the sequence last published there; the slot is ready when it matches
+  private final AtomicLongArray published;
+  // Next sequence to claim, with CLOSED set once closing
+  private final AtomicLong claimed;
+  // Everything below written has left the ring, everything below durable is synced
+  private volatile long written;
+  private volatile long durable;
+  private volatile boolean writerIdle;
+  private volatile IOException failure;
+  private final Thread writer;
+
+  // Holds the directory's lock until close()
+  private final FileChannel lockChannel;
+  // Only touched by the writer thread after construction
+  private FileChannel channel;
+  private long segmentSize;
+
+  public AssessmentLog(Path dir, int capacity, long segmentBytes) throws IOException {
+    if (Integer.bitCount(capacity) != 1 || capacity > Integer.MAX_VALUE / RECORD_SIZE) {
+      throw new IllegalArgumentException("Capacity must be a power of two, not " + capacity);
+    }
+    if (segmentBytes < HEADER_SIZE + RECORD_SIZE) {
+      throw new IllegalArgumentException("Segments must hold at least one record");
+    }
+    this.dir = dir;
+    this.segmentBytes = segmentBytes;
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+    this.ring = ByteBuffer.allocateDirect(capacity * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    this.published = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      published.set(i, -1);
+    }
+
+    Files.createDirectories(dir);
+    this.lockChannel = lock(dir);
+    long next;
+    try {
+      next = recover();
+      if (segmentSize >= segmentBytes) {
+        roll(next);
+      }
+    } catch (IOException | RuntimeException e) {
+      lockChannel.close();
+      if (channel != null) {
+        channel.close();
+      }
+      throw e;
+    }
+    this.claimed = new AtomicLong(next);
+    this.written = next;
+    this.durable = next;
+    this.writer = new Thread(this::writeLoop, "assessment-log-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  // The lock is released when the returned channel closes, or when the process exits
+  private static FileChannel lock(Path dir) throws IOException {
+    FileChannel lockChannel =
+        FileChannel.open(
+            dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    FileLock lock;
+    try {
+      lock = lockChannel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // Held by another log in this JVM
+      lock = null;
+    } catch (IOException | RuntimeException e) {
+      lockChannel.close();
+      throw e;
+    }
+    if (lock == null) {
+      lockChannel.close();
+      throw new IOException(dir.toAbsolutePath() + " is already in use by another assessment log");
+    }
+    return lockChannel;
+  }
+
+  // The directory named by -Ddiabetes.log.dir, or ./assessments
+  public static AssessmentLog openDefault() throws IOException {
+    String dir = System.getProperty(DIR_PROPERTY);
+    return new AssessmentLog(
+        dir != null ? Paths.get(dir) : DEFAULT_DIR, DEFAULT_CAPACITY, DEFAULT_SEGMENT_BYTES);
+  }
+
+  // Drains and syncs the ring when the JVM exits, e.g. on System.exit from a window's close button
+  public AssessmentLog closeOnShutdown() {
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  try {
+                    close();
+                  } catch (IOException e) {
+                    System.err.println("Assessment log: " + e.getMessage());
+                  }
+                },
+                "assessment-log-shutdown"));
+    return this;
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path dir = args.length > 0 ? Paths.get(args[0]) : DEFAULT_DIR;
+    StringBuilder line = new StringBuilder("sequence,time,source,model,probability,label,imputed");
+    for (String name : XGBoostModel.FEATURE_NAMES) {
+      line.append(',').append(name);
+    }
+    System.out.println(line);
+    read(
+        dir,
+        record -> {
+          line.setLength(0);
+          line.append(record.sequence)
+              .append(',')
+              .append(Instant.ofEpochMilli(record.timeMillis))
+              .append(',')
+              .append(record.source)
+              .append(',')
+              .append(String.format("%08x", record.modelFingerprint))
+              .append(',')
+              .append(record.probability)
+              .append(',')
+              .append(record.label)
+              .append(',');
+          // Imputed feature names separated by spaces
+          for (int f = 0, n = 0; f < FeatureVector.WIDTH; f++) {
+            if (record.isImputed(f)) {
+              line.append(n++ > 0 ? " " : "").append(XGBoostModel.FEATURE_NAMES[f]);
+            }
+          }
+          for (double value : record.features) {
+            line.append(',').append(value);
+          }
+          System.out.println(line);
+        });
+  }
+
+  /**
+   * Queues one record without blocking and returns its sequence number, or -1 if it was dropped
+   * because the ring is full, the log is closed or the writer has failed. The label is taken at
+   * {@link XGBoostModel#getThreshold() the configured threshold}.
+   */
+  public long append(
+      Source source,
+      int modelFingerprint,
+      double[] features,
+      int offset,
+      int imputedMask,
+      float probability) {
+    if (offset < 0 || offset > features.length - FeatureVector.WIDTH) {
+      throw new IllegalArgumentException("No " + FeatureVector.WIDTH + " features at " + offset);
+    }
+    long sequence;
+    do {
+      sequence = claimed.get();
+      if (sequence < 0 || sequence - written >= capacity || failure != null) {
+        Metrics.GLOBAL.increment(Metrics.Counter.ASSESSMENTS_DROPPED);
+        return -1;
+      }
+    } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+    int slot = (int) sequence & mask;
+    int base = slot * RECORD_SIZE;
+    ring.putLong(base, sequence);
+    ring.putLong(base + 8, System.currentTimeMillis());
+    ring.putInt(base + 16, modelFingerprint);
+    ring.putFloat(base + 20, probability);
+    ring.put(
+        base + 24, (byte) (probability == probability ? XGBoostModel.toLabel(probability) : -1));
+    ring.put(base + 25, (byte) source.ordinal());
+    ring.put(base + 26, (byte) imputedMask);
+    ring.put(base + 27, (byte) 0);
+    for (int f = 0; f < FeatureVector.WIDTH; f++) {
+      ring.putDouble(base + 28 + 8 * f, features[offset + f]);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(ring.slice(base, CHECKED_BYTES));
+    ring.putInt(base + CHECKED_BYTES, (int) crc.getValue());
+
+    published.set(slot, sequence);
+    if (writerIdle) {
+      LockSupport.unpark(writer);
+    }
+    return sequence;
+  }
+
+  // Every record with a lower sequence number is on disk
+  public long getDurableSequence() {
+    return durable;
+  }
+
+  private void writeLoop() {
+    try {
+      while (true) {
+        long from = written;
+        long to = from;
+        while (to - from < capacity && published.get((int) to & mask) == to) {
+          to++;
+        }
+        if (to > from) {
+          commit(from, to);
+          continue;
+        }
+        long state = claimed.get();
+        if (state < 0) {
+          if (from == (state & ~CLOSED)) {
+            break;
+          }
+          // Claimed before close() but not published yet; only a few instructions away
+          Thread.onSpinWait();
+          continue;
+        }
+        // Appenders unpark us when they see this; the timeout covers a missed signal
+        writerIdle = true;
+        if (published.get((int) from & mask) != from && claimed.get() >= 0) {
+          LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        writerIdle = false;
+      }
+    } catch (IOException e) {
+      failure = e;
+      System.err.println("Assessment log stopped: " + e);
+    } finally {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // Everything that matters was forced already
+      }
+    }
+  }
+
+  // Group commit: one gathering write and one sync for every record in [from, to)
+  private void commit(long from, long to) throws IOException {
+    long start = System.nanoTime();
+    int first = (int) from & mask;
+    int count = (int) (to - from);
+    int head = Math.min(count, capacity - first);
+    ByteBuffer[] parts = {
+      ring.slice(first * RECORD_SIZE, head * RECORD_SIZE),
+      ring.slice(0, (count - head) * RECORD_SIZE)
+    };
+    long bytes = (long) count * RECORD_SIZE;
+    for (long done = 0; done < bytes; ) {
+      done += channel.write(parts);
+    }
+    // The slots are copied out, so appenders may reuse them while the sync runs
+    written = to;
+    // fdatasync still persists the file length, which is all an append changes
+    channel.force(false);
+    durable = to;
+    segmentSize += bytes;
+    Metrics.GLOBAL.record(Metrics.Timer.LOG_COMMIT, start);
+    Metrics.GLOBAL.add(Metrics.Counter.ASSESSMENTS_LOGGED, count);
+    if (segmentSize >= segmentBytes) {
+      roll(to);
+    }
+  }
+
+  private void roll(long firstSequence) throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+    Path path = dir.resolve(String.format("%s%019d%s", PREFIX, firstSequence, SUFFIX));
+    channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0).flip();
+    while (header.hasRemaining()) {
+      channel.write(header);
+    }
+    channel.force(true);
+    syncDirectory(dir);
+    segmentSize = HEADER_SIZE;
+  }
+
+  // Makes a new segment's directory entry durable; not every platform can open a directory
+  private static void syncDirectory(Path dir) {
+    try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+      directory.force(true);
+    } catch (IOException e) {
+      // The file's own data is still synced on every commit
+    }
+  }
+
+  // Opens the newest segment for appending after its last intact record; returns the next sequence
+  private long recover() throws IOException {
+    List<Path> segments = segments(dir);
+    if (segments.isEmpty()) {
+      roll(0);
+      return 0;
+    }
+    Path last = segments.get(segments.size() - 1);
+    long first = firstSequence(last);
+    channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long size = channel.size();
+    if (size < HEADER_SIZE) {
+      // Crashed while creating the segment, before anything was logged to it
+      channel.close();
+      Files.delete(last);
+      channel = null;
+      roll(first);
+      return first;
+    }
+    long count = scan(channel, last, first, null);
+    long end = HEADER_SIZE + count * RECORD_SIZE;
+    if (size > end) {
+      Path torn = last.resolveSibling(last.getFileName() + ".torn-" + end);
+      ByteBuffer tail = ByteBuffer.allocate(Math.toIntExact(size - end));
+      while (tail.hasRemaining() && channel.read(tail, end + tail.position()) >= 0) {
+        // Keep reading until the tail is in memory
+      }
+      Files.write(torn, tail.array());
+      channel.truncate(end);
+      channel.force(true);
+      System.err.println(
+          "Assessment log: cut "
+              + (size - end)
+              + " bytes after record "
+              + (first + count - 1)
+              + " of "
+              + last
+              + ", saved to "
+              + torn.getFileName());
+    }
+    channel.position(end);
+    segmentSize = end;
+    return first + count;
+  }
+
+  /**
+   * Reads every intact record in {@code dir}, oldest first. A bad record ends the newest segment,
+   * where a crash can leave one; anywhere else it is corruption and throws.
+   */
+  public static void read(Path dir, Consumer<Record> sink) throws IOException {
+    List<Path> segments = segments(dir);
+    for (int i = 0; i < segments.size(); i++) {
+      Path path = segments.get(i);
+      try (FileChannel segment = FileChannel.open(path, StandardOpenOption.READ)) {
+        long count = scan(segment, path, firstSequence(path), sink);
+        long complete = (segment.size() - HEADER_SIZE) / RECORD_SIZE;
+        if (count < complete && i < segments.size() - 1) {
+          throw new IOException(path + " is corrupt at record " + (firstSequence(path) + count));
+        }
+      }
+    }
+  }
+
+  // Counts the intact records from the start of a segment, passing each to sink if it isn't null
+  private static long scan(FileChannel segment, Path path, long first, Consumer<Record> sink)
+      throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    while (header.hasRemaining() && segment.read(header, header.position()) >= 0) {
+      // Keep reading until the header is in memory
+    }
+    if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+      throw new IOException(path + " is not an assessment log segment");
+    }
+    if (header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE) {
+      throw new IOException(
+          path + " has format version " + header.getInt(4) + " instead of " + VERSION);
+    }
+
+    ByteBuffer chunk = ByteBuffer.allocate(1024 * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    CRC32 crc = new CRC32();
+    long count = 0;
+    long position = HEADER_SIZE;
+    while (true) {
+      chunk.clear();
+      while (chunk.hasRemaining() && segment.read(chunk, position + chunk.position()) > 0) {
+        // Fill the chunk or reach the end of the file
+      }
+      int records = chunk.position() / RECORD_SIZE;
+      for (int r = 0; r < records; r++) {
+        int base = r * RECORD_SIZE;
+        crc.reset();
+        crc.update(chunk.array(), base, CHECKED_BYTES);
+        if ((int) crc.getValue() != chunk.getInt(base + CHECKED_BYTES)
+            || chunk.getLong(base) != first + count) {
+          return count;
+        }
+        if (sink != null) {
+          sink.accept(new Record(chunk, base));
+        }
+        count++;
+      }
+      if (chunk.hasRemaining()) {
+        return count;
+      }
+      position += (long) records * RECORD_SIZE;
+    }
+  }
+
+  // Oldest first: names hold the zero-padded first sequence
+  private static List<Path> segments(Path dir) throws IOException {
+    List<Path> segments = new ArrayList<>();
+    if (!Files.isDirectory(dir)) {
+      return segments;
+    }
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+      for (Path path : stream) {
+        segments.add(path);
+      }
+    }
+    Collections.sort(segments);
+    return segments;
+  }
+
+  private static long firstSequence(Path segment) throws IOException {
+    String name = segment.getFileName().toString();
+    try {
+      return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      throw new IOException("Unexpected segment name " + name);
+    }
+  }
+
+  /** Writes out every record appended so far, syncs and stops the writer. */
+  @Override
+  public void close() throws IOException {
+    long state;
+    do {
+      state = claimed.get();
+    } while (state >= 0 && !claimed.compareAndSet(state, state | CLOSED));
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while closing the assessment log", e);
+    }
+    // Only once the writer is done with the segment can another log take it over
+    lockChannel.close();
+    if (failure != null) {
+      throw new IOException("Assessment log writer failed", failure);
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package JavaBackEnd;
+
+import static JavaBackEnd.FeatureSchema.MEASUREMENTS;
+
+/**
+ * The assistant's question flow without any UI: welcome, pregnancy, every {@link
+ * FeatureSchema#MEASUREMENTS measurement} in index order, then the result.
+ *
+ * <p>Answers arrive as the text the user typed and come back as an {@link Outcome} the front end
+ * turns into feedback. A measurement rejected {@value #MAX_ATTEMPTS} times in a row is left missing
+ * and the flow moves on, as the desktop assistant always has. Once the session reaches {@link
+ * Step#RESULT}, {@link #getFeatures()} holds the answers for imputation and scoring.
+ *
+ * <p>Instances are mutable and meant for one thread at a time. The whole state packs into one int
+ * plus the feature values (see {@link #encode}), which is how {@link SessionTable} stores hundreds
+ * of thousands of them without an object per session.
+ */
+public final class AssessmentSession {
+  public static final int MAX_ATTEMPTS = 3;
+
+  public enum Step {
+    WELCOME,
+    PREGNANCY,
+    PREGNANCY_COUNT,
+    MEASUREMENT,
+    RESULT
+  }
+
+  public enum Outcome {
+    ACCEPTED(null),
+    EMPTY("Please enter a value"),
+    NOT_A_NUMBER("Please enter a valid number"),
+    OUT_OF_RANGE(null),
+    // Third rejection in a row: the value stays missing and the flow moves on
+    SKIPPED("We'll proceed without this value");
+
+    private final String message;
+
+    Outcome(String message) {
+      this.message = message;
+    }
+
+    // What to tell the user; config is the measurement answered, null for the pregnancy count
+    public String message(MeasurementConfig config) {
+      if (this != OUT_OF_RANGE) {
+        return message;
+      }
+      return config == null
+          ? "Please enter a number 0 or higher"
+          : String.format(
+              "Please enter between %.0f and %.0f", config.absoluteMin, config.absoluteMax);
+    }
+  }
+
+  // Positions: the first three steps, one per measurement, then the result
+  private static final int FIRST_MEASUREMENT = Step.MEASUREMENT.ordinal();
+  private static final int RESULT = FIRST_MEASUREMENT + MEASUREMENTS.length;
+
+  // Packed state: position in bits 0-3, 2 bits of attempts per measurement from bit 4, and the
+  // missing mask after them
+  private static final int POSITION_BITS = 4;
+  private static final int ATTEMPT_BITS = 2;
+  private static final int MISSING_SHIFT = POSITION_BITS + ATTEMPT_BITS * MEASUREMENTS.length;
+
+  private final FeatureVector features = new FeatureVector();
+  private int position;
+  private int attempts;
+
+  public Step getStep() {
+    return position >= RESULT ? Step.RESULT : Step.values()[Math.min(position, FIRST_MEASUREMENT)];
+  }
+
+  // The measurement being asked for, or null outside Step.MEASUREMENT
+  public MeasurementConfig getMeasurement() {
+    return getStep() == Step.MEASUREMENT ? MEASUREMENTS[position - FIRST_MEASUREMENT] : null;
+  }
+
+  // Invalid answers so far to the current measurement
+  public int getAttempts() {
+    MeasurementConfig config = getMeasurement();
+    return config == null ? 0 : attemptsAt(config.index);
+  }
+
+  public boolean isComplete() {
+    return position == RESULT;
+  }
+
+  // The answers so far; missing features stay missing until the caller imputes them
+  public FeatureVector getFeatures() {
+    return features;
+  }
+
+  // Welcome: the user agreed to take the check
+  public void begin() {
+    expect(Step.WELCOME);
+    position = Step.PREGNANCY.ordinal();
+  }
+
+  public void answerPregnant(boolean pregnant) {
+    expect(Step.PREGNANCY);
+    if (pregnant) {
+      position = Step.PREGNANCY_COUNT.ordinal();
+    } else {
+      features.set(FeatureVector.PREGNANCIES, 0);
+      position = FIRST_MEASUREMENT;
+    }
+  }
+
+  // Unlike the measurements, the count is asked until it is answered
+  public Outcome answerPregnancies(String text) {
+    expect(Step.PREGNANCY_COUNT);
+    int times;
+    try {
+      times = Integer.parseInt(text.trim());
+    } catch (NumberFormatException e) {
+      return Outcome.NOT_A_NUMBER;
+    }
+    if (times < 0) {
+      return Outcome.OUT_OF_RANGE;
+    }
+    features.set(FeatureVector.PREGNANCIES, times);
+    position = FIRST_MEASUREMENT;
+    return Outcome.ACCEPTED;
+  }
+
+  public Outcome answerMeasurement(String text) {
+    expect(Step.MEASUREMENT);
+    MeasurementConfig config = getMeasurement();
+    text = text.trim();
+    if (text.isEmpty()) {
+      return reject(config, Outcome.EMPTY);
+    }
+    double value;
+    long parseStart = System.nanoTime();
+    try {
+      value = Double.parseDouble(text);
+    } catch (NumberFormatException e) {
+      return reject(config, Outcome.NOT_A_NUMBER);
+    }
+    Metrics.GLOBAL.record(Metrics.Timer.PARSE, parseStart);
+    long validateStart = System.nanoTime();
+    boolean valid = config.isValid(value);
+    Metrics.GLOBAL.record(Metrics.Timer.VALIDATE, validateStart);
+    if (!valid) {
+      return reject(config, Outcome.OUT_OF_RANGE);
+    }
+    features.set(config, value);
+    setAttempts(config.index, 0);
+    position++;
+    return Outcome.ACCEPTED;
+  }
+
+  private Outcome reject(MeasurementConfig config, Outcome outcome) {
+    Metrics.GLOBAL.increment(Metrics.Counter.VALIDATION_FAILURES);
+    int count = attemptsAt(config.index) + 1;
+    if (count < MAX_ATTEMPTS) {
+      setAttempts(config.index, count);
+      return outcome;
+    }
+    features.setMissing(config);
+    setAttempts(config.index, 0);
+    position++;
+    return Outcome.SKIPPED;
+  }
+
+  // One question back; the first measurement goes back to the pregnancy count, as on screen
+  public void back() {
+    if (position > Step.WELCOME.ordinal() && position < RESULT) {
+      position--;
+    }
+  }
+
+  // Forgets every answer and starts again at the welcome
+  public void restart() {
+    features.clear();
+    attempts = 0;
+    position = Step.WELCOME.ordinal();
+  }
+
+  private void expect(Step step) {
+    if (getStep() != step) {
+      throw new IllegalStateException("Expected " + step + " but the session is at " + getStep());
+    }
+  }
+
+  private int attemptsAt(int measurement) {
+    return attempts >>> (ATTEMPT_BITS * measurement) & (1 << ATTEMPT_BITS) - 1;
+  }
+
+  private void setAttempts(int measurement, int count) {
+    int shift = ATTEMPT_BITS * measurement;
+    attempts = attempts & ~(((1 << ATTEMPT_BITS) - 1) << shift) | count << shift;
+  }
+
+  // Writes the features to values[offset..offset + WIDTH) and returns everything else as one int
+  int encode(double[] values, int offset) {
+    for (int f = 0; f < FeatureVector.WIDTH; f++) {
+      values[offset + f] = features.isMissing(f) ? 0 : features.get(f);
+    }
+    return position | attempts << POSITION_BITS | features.missingMask() << MISSING_SHIFT;
+  }
+
+  void decode(int state, double[] values, int offset) {
+    position = state & (1 << POSITION_BITS) - 1;
+    attempts = state >>> POSITION_BITS & (1 << (MISSING_SHIFT - POSITION_BITS)) - 1;
+    int missing = state >>> MISSING_SHIFT;
+    features.clear();
+    for (int f = 0; f < FeatureVector.WIDTH; f++) {
+      if ((missing & 1 << f) == 0) {
+        features.set(f, values[offset + f]);
+      }
+    }
+  }
+}
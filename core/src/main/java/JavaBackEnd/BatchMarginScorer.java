@@ -0,0 +1,10 @@
+package JavaBackEnd;
+
+/**
+ * Scores packed row-major batches; implemented by {@link FlatEnsemble}, {@link QuantizedEnsemble}
+ * and the optional Vector API engine built with {@code -Pvector}.
+ */
+interface BatchMarginScorer {
+  // Scores rows [fromRow, toRow): row r occupies packedRows[r * numFeatures ..) and goes to out[r]
+  void predictMargins(double[] packedRows, int fromRow, int toRow, float[] out);
+}
@@ -0,0 +1,242 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary copy of an {@link XGBoostModel}: only what scoring needs, as little-endian arrays.
+ *
+ * <pre>
+ * int    magic 'DXGB', version
+ * long   size of the JSON file it was converted from, -1 if none
+ * int    CRC32 of that JSON file
+ * int    numFeatures
+ * float  baseScore
+ * int    numTrees, then numTrees node counts
+ * per tree, each array numNodes long:
+ *   int splitIndices, float splitConditions, int leftChildren, int rightChildren,
+ *   float sumHessian, byte defaultLeft (0/1), padded to a multiple of 4
+ * int    CRC32 of every byte before it
+ * </pre>
+ *
+ * <p>Files are memory-mapped and bulk-copied straight into the tree arrays, skipping JSON parsing
+ * altogether. {@link XGBoostModel#load} prefers a {@code .bin} file next to the JSON only when it
+ * records that JSON's exact size and checksum; modification times are not trusted, since copies and
+ * checkouts can keep an old one. Files from an older format version are rejected, so {@code load}
+ * falls back to the JSON until they are converted again.
+ *
+ * <p>Usage: {@code java JavaBackEnd.BinaryModelFormat [model.json] [model.bin]}
+ */
+public final class BinaryModelFormat {
+  public static final String EXTENSION = ".bin";
+  private static final int MAGIC = 'D' | 'X' << 8 | 'G' << 16 | 'B' << 24;
+  // 2: added sumHessian; 3: added the source JSON's size and checksum
+  private static final int VERSION = 3;
+  private static final int HEADER_SIZE = 32;
+
+  private BinaryModelFormat() {}
+
+  public static void main(String[] args) throws IOException {
+    Path json = args.length > 0 ? Paths.get(args[0]) : XGBoostModel.DEFAULT_PATH;
+    Path bin = args.length > 1 ? Paths.get(args[1]) : siblingOf(json);
+
+    long start = System.nanoTime();
+    XGBoostModel model = XGBoostModel.loadJson(json);
+    long parsed = System.nanoTime();
+    write(model, bin, json);
+    long loadStart = System.nanoTime();
+    read(bin);
+    long loaded = System.nanoTime();
+    System.out.printf(
+        "%s (%d bytes, parsed in %.1f ms) -> %s (%d bytes, loads in %.1f ms)%n",
+        json,
+        Files.size(json),
+        (parsed - start) / 1e6,
+        bin,
+        Files.size(bin),
+        (loaded - loadStart) / 1e6);
+  }
+
+  // model.json -> model.bin
+  public static Path siblingOf(Path json) {
+    String name = json.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    return json.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + EXTENSION);
+  }
+
+  // A copy with no source, which is only ever loaded by its own path
+  public static void write(XGBoostModel model, Path path) throws IOException {
+    write(model, path, null);
+  }
+
+  // model must have been loaded from source, which the copy then stands in for
+  public static void write(XGBoostModel model, Path path, Path source) throws IOException {
+    long sourceSize = -1;
+    int sourceCrc = 0;
+    if (source != null) {
+      byte[] bytes = Files.readAllBytes(source);
+      sourceSize = bytes.length;
+      sourceCrc = crc(bytes);
+    }
+    int numTrees = model.getNumTrees();
+    long size = HEADER_SIZE + 4L * numTrees + 4;
+    for (int t = 0; t < numTrees; t++) {
+      int n = model.getTree(t).numNodes();
+      size += 20L * n + padded(n);
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size)).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putInt(VERSION).putLong(sourceSize).putInt(sourceCrc);
+    buffer.putInt(model.getNumFeatures());
+    buffer.putFloat(model.getBaseScore()).putInt(numTrees);
+    for (int t = 0; t < numTrees; t++) {
+      buffer.putInt(model.getTree(t).numNodes());
+    }
+    for (int t = 0; t < numTrees; t++) {
+      XGBoostModel.Tree tree = model.getTree(t);
+      int n = tree.numNodes();
+      buffer.asIntBuffer().put(tree.splitIndices);
+      buffer.position(buffer.position() + 4 * n);
+      buffer.asFloatBuffer().put(tree.splitConditions);
+      buffer.position(buffer.position() + 4 * n);
+      buffer.asIntBuffer().put(tree.leftChildren);
+      buffer.position(buffer.position() + 4 * n);
+      buffer.asIntBuffer().put(tree.rightChildren);
+      buffer.position(buffer.position() + 4 * n);
+      buffer.asFloatBuffer().put(tree.sumHessian);
+      buffer.position(buffer.position() + 4 * n);
+      for (boolean left : tree.defaultLeft) {
+        buffer.put((byte) (left ? 1 : 0));
+      }
+      buffer.position(buffer.position() + padded(n) - n);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) crc.getValue());
+
+    // Write next to the target and rename, so readers never map a half-written file
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    Files.write(temp, buffer.array());
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Reads {@code path} if it was converted from {@code json} as it is now, same size and checksum,
+   * and throws otherwise.
+   */
+  public static XGBoostModel readCopyOf(Path json, Path path) throws IOException {
+    byte[] source = Files.readAllBytes(json);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer buffer =
+          channel
+              .map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+              .order(ByteOrder.LITTLE_ENDIAN);
+      XGBoostModel model = decode(buffer, path);
+      if (buffer.getLong(8) != source.length || buffer.getInt(16) != crc(source)) {
+        throw new IOException(path + " was not converted from the current " + json);
+      }
+      return model;
+    }
+  }
+
+  public static XGBoostModel read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return decode(mapped.order(ByteOrder.LITTLE_ENDIAN), path);
+    }
+  }
+
+  private static XGBoostModel decode(ByteBuffer buffer, Path path) throws IOException {
+    int end = buffer.limit() - 4;
+    if (end < 8 || buffer.getInt(0) != MAGIC) {
+      throw new IOException(path + " is not a binary model file");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IOException(
+          path + " has format version " + buffer.getInt(4) + " instead of " + VERSION);
+    }
+    if (end < HEADER_SIZE) {
+      throw new IOException(path + " is truncated");
+    }
+    CRC32 crc = new CRC32();
+    crc.update(buffer.duplicate().position(0).limit(end));
+    if ((int) crc.getValue() != buffer.getInt(end)) {
+      throw new IOException(path + " is corrupt (checksum mismatch)");
+    }
+
+    try {
+      // Past magic, version and the source stamp
+      buffer.position(20).limit(end);
+      int numFeatures = buffer.getInt();
+      float baseScore = buffer.getFloat();
+      int numTrees = buffer.getInt();
+      if (numTrees < 0 || numTrees > buffer.remaining() / 4) {
+        throw new IOException(path + " declares " + numTrees + " trees");
+      }
+      int[] nodeCounts = new int[numTrees];
+      buffer.asIntBuffer().get(nodeCounts);
+      buffer.position(buffer.position() + 4 * numTrees);
+
+      XGBoostModel.Tree[] trees = new XGBoostModel.Tree[numTrees];
+      for (int t = 0; t < numTrees; t++) {
+        int n = nodeCounts[t];
+        if (n < 1 || n > buffer.remaining() / 20) {
+          throw new IOException(path + " declares " + n + " nodes in tree " + t);
+        }
+        int[] splitIndices = new int[n];
+        float[] splitConditions = new float[n];
+        int[] leftChildren = new int[n];
+        int[] rightChildren = new int[n];
+        float[] sumHessian = new float[n];
+        boolean[] defaultLeft = new boolean[n];
+        buffer.asIntBuffer().get(splitIndices);
+        buffer.position(buffer.position() + 4 * n);
+        buffer.asFloatBuffer().get(splitConditions);
+        buffer.position(buffer.position() + 4 * n);
+        buffer.asIntBuffer().get(leftChildren);
+        buffer.position(buffer.position() + 4 * n);
+        buffer.asIntBuffer().get(rightChildren);
+        buffer.position(buffer.position() + 4 * n);
+        buffer.asFloatBuffer().get(sumHessian);
+        buffer.position(buffer.position() + 4 * n);
+        for (int i = 0; i < n; i++) {
+          defaultLeft[i] = buffer.get() != 0;
+        }
+        buffer.position(buffer.position() + padded(n) - n);
+        trees[t] =
+            new XGBoostModel.Tree(
+                splitIndices,
+                splitConditions,
+                leftChildren,
+                rightChildren,
+                defaultLeft,
+                sumHessian);
+      }
+      if (buffer.hasRemaining()) {
+        throw new IOException(path + " has " + buffer.remaining() + " trailing bytes");
+      }
+      return new XGBoostModel(numFeatures, baseScore, trees);
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new IOException("Invalid binary model " + path + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static int crc(byte[] bytes) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return (int) crc.getValue();
+  }
+
+  private static int padded(int bytes) {
+    return (bytes + 3) & ~3;
+  }
+}
@@ -0,0 +1,489 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Scores CSV exports in the Pima column layout (8 features, optionally followed by Outcome).
+ *
+ * <p>The input is memory-mapped in chunks that end on line boundaries, so files larger than 2 GB
+ * work. Numbers are parsed straight from the mapped bytes. Chunks are scored in parallel with the
+ * batch engine and written in input order as {@code id,probability,label}, where id is the 1-based
+ * data line number. Empty cells are missing values, filled in per block by an {@link Imputer}. Rows
+ * that fail to parse or fall outside a {@link MeasurementConfig}'s absolute range go to a side file
+ * as {@code id,reason,original line}.
+ *
+ * <p>Usage: {@code java JavaBackEnd.BulkScorer input.csv output.csv [rejects.csv]}
+ */
+public final class BulkScorer {
+  private static final int CHUNK_BYTES = 16 << 20;
+  private static final int BLOCK_ROWS = 1024;
+  private static final int WIDTH = XGBoostModel.FEATURE_NAMES.length;
+
+  private final XGBoostModel model;
+  private final int threads;
+  private final Imputer imputer;
+
+  public BulkScorer(XGBoostModel model, int threads) {
+    this(model, threads, FeatureSchema.defaultImputer());
+  }
+
+  public BulkScorer(XGBoostModel model, int threads, Imputer imputer) {
+    this.model = model;
+    this.threads = threads;
+    this.imputer = imputer;
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: BulkScorer input.csv output.csv [rejects.csv]");
+      System.exit(2);
+    }
+    Path input = Paths.get(args[0]);
+    Path output = Paths.get(args[1]);
+    Path rejects = args.length > 2 ? Paths.get(args[2]) : Paths.get(args[1] + ".rejects.csv");
+
+    XGBoostModel model = XGBoostModel.load(XGBoostModel.DEFAULT_PATH);
+    long start = System.nanoTime();
+    long[] counts =
+        new BulkScorer(model, Runtime.getRuntime().availableProcessors())
+            .score(input, output, rejects);
+    System.out.printf(
+        "Scored %d rows, rejected %d, in %.1f s%n",
+        counts[0], counts[1], (System.nanoTime() - start) / 1e9);
+  }
+
+  // Returns {scored rows, rejected rows}
+  public long[] score(Path input, Path output, Path rejects) throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+        FileChannel out = openForWrite(output);
+        FileChannel rejectOut = openForWrite(rejects)) {
+      long dataStart = skipHeader(in);
+      long[] bounds = chunkBounds(in, dataStart);
+      long[] firstIds = firstLineIds(in, bounds, executor);
+
+      out.write(ByteBuffer.wrap("id,probability,label\n".getBytes(StandardCharsets.US_ASCII)));
+      long scored = 0;
+      long rejected = 0;
+      ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+      for (int c = 0; c + 1 < bounds.length || !inFlight.isEmpty(); ) {
+        // Keep a bounded window of chunks in flight, and write them back in order
+        while (c + 1 < bounds.length && inFlight.size() < threads * 2) {
+          long from = bounds[c];
+          long to = bounds[c + 1];
+          long firstId = firstIds[c];
+          inFlight.add(executor.submit(() -> scoreChunk(in, from, to, firstId)));
+          c++;
+        }
+        Chunk chunk = await(inFlight.poll());
+        writeFully(out, chunk.output);
+        writeFully(rejectOut, chunk.rejects);
+        scored += chunk.scored;
+        rejected += chunk.rejected;
+      }
+      return new long[] {scored, rejected};
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static FileChannel openForWrite(Path path) throws IOException {
+    return FileChannel.open(
+        path,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  // A first line that does not start like a number is the column header
+  private static long skipHeader(FileChannel in) throws IOException {
+    long size = in.size();
+    if (size == 0) {
+      return 0;
+    }
+    MappedByteBuffer head = in.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, 1 << 16));
+    byte first = head.get(0);
+    if ((first >= '0' && first <= '9') || first == '-' || first == '+' || first == '.') {
+      return 0;
+    }
+    for (int i = 0; i < head.limit(); i++) {
+      if (head.get(i) == '\n') {
+        return i + 1;
+      }
+    }
+    return head.limit();
+  }
+
+  // Chunk i covers [bounds[i], bounds[i + 1]); every boundary sits just after a newline
+  private static long[] chunkBounds(FileChannel in, long dataStart) throws IOException {
+    long size = in.size();
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(dataStart);
+    long pos = dataStart;
+    while (pos < size) {
+      long next = Math.min(size, pos + CHUNK_BYTES);
+      if (next < size) {
+        MappedByteBuffer probe =
+            in.map(FileChannel.MapMode.READ_ONLY, next, Math.min(size - next, 1 << 20));
+        int i = 0;
+        while (i < probe.limit() && probe.get(i) != '\n') {
+          i++;
+        }
+        if (i == probe.limit()) {
+          throw new IOException("Line longer than 1 MB near offset " + next);
+        }
+        next += i + 1;
+      }
+      bounds.add(next);
+      pos = next;
+    }
+    long[] result = new long[bounds.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = bounds.get(i);
+    }
+    return result;
+  }
+
+  // Id of the first line in each chunk, from a parallel newline count
+  private static long[] firstLineIds(FileChannel in, long[] bounds, ExecutorService executor)
+      throws IOException {
+    List<Future<Long>> counts = new ArrayList<>();
+    for (int c = 0; c + 1 < bounds.length; c++) {
+      long from = bounds[c];
+      long to = bounds[c + 1];
+      counts.add(executor.submit(() -> countLines(in, from, to)));
+    }
+    long[] firstIds = new long[counts.size()];
+    long id = 1;
+    for (int c = 0; c < firstIds.length; c++) {
+      firstIds[c] = id;
+      id += await(counts.get(c));
+    }
+    return firstIds;
+  }
+
+  private static long countLines(FileChannel in, long from, long to) throws IOException {
+    MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+    int limit = buffer.limit();
+    long lines = 0;
+    for (int i = 0; i < limit; i++) {
+      if (buffer.get(i) == '\n') {
+        lines++;
+      }
+    }
+    if (limit > 0 && buffer.get(limit - 1) != '\n') {
+      lines++;
+    }
+    return lines;
+  }
+
+  private Chunk scoreChunk(FileChannel in, long from, long to, long firstId) throws IOException {
+    MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+    Chunk chunk = new Chunk();
+    Cursor cursor = new Cursor(buffer);
+
+    double[] packed = new double[BLOCK_ROWS * WIDTH];
+    long[] ids = new long[BLOCK_ROWS];
+    float[] probabilities = new float[BLOCK_ROWS];
+    int rows = 0;
+    long id = firstId;
+    while (cursor.pos < cursor.limit) {
+      int lineStart = cursor.pos;
+      String reason = cursor.readRow(packed, rows * WIDTH);
+      int lineEnd = cursor.pos;
+      cursor.nextLine();
+      if (reason == null) {
+        ids[rows++] = id;
+        if (rows == BLOCK_ROWS) {
+          flush(chunk, packed, ids, probabilities, rows);
+          rows = 0;
+        }
+      } else if (reason != Cursor.BLANK) {
+        chunk.reject(id, reason, buffer, lineStart, lineEnd);
+      }
+      id++;
+    }
+    flush(chunk, packed, ids, probabilities, rows);
+    return chunk;
+  }
+
+  private void flush(Chunk chunk, double[] packed, long[] ids, float[] probabilities, int rows) {
+    imputer.imputeBatch(packed, rows);
+    model.predictProbabilities(packed, rows, probabilities);
+    for (int r = 0; r < rows; r++) {
+      chunk.output.appendLong(ids[r]).append(',');
+      chunk.output.appendProbability(probabilities[r]).append(',');
+      chunk.output.append((byte) ('0' + XGBoostModel.toLabel(probabilities[r]))).append('\n');
+    }
+    chunk.scored += rows;
+  }
+
+  private static <T> T await(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while scoring", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Scoring failed", e.getCause());
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteSink sink) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(sink.bytes, 0, sink.size);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static final class Chunk {
+    final ByteSink output = new ByteSink(1 << 16);
+    final ByteSink rejects = new ByteSink(256);
+    long scored;
+    long rejected;
+
+    void reject(long id, String reason, ByteBuffer line, int from, int to) {
+      rejects.appendLong(id).append(',').appendAscii(reason).append(',');
+      for (int i = from; i < to; i++) {
+        byte b = line.get(i);
+        if (b != '\r') {
+          rejects.append(b);
+        }
+      }
+      rejects.append('\n');
+      rejected++;
+    }
+  }
+
+  // Reads one CSV row at a time from the mapped bytes without building Strings
+  static final class Cursor {
+    static final String BLANK = "blank line";
+
+    private final ByteBuffer buffer;
+    final int limit;
+    int pos;
+
+    Cursor(ByteBuffer buffer) {
+      this.buffer = buffer;
+      this.limit = buffer.limit();
+    }
+
+    // Parses 8 features (ignoring a trailing Outcome column) into row[offset ..]; returns the
+    // reason for rejecting the row, or null if it is valid. Leaves pos at the end of the line.
+    String readRow(double[] row, int offset) {
+      if (pos >= limit || buffer.get(pos) == '\n' || buffer.get(pos) == '\r') {
+        skipToEndOfLine();
+        return BLANK;
+      }
+      for (int f = 0; f < WIDTH; f++) {
+        if (f > 0) {
+          if (pos >= limit || buffer.get(pos) != ',') {
+            skipToEndOfLine();
+            return "expected " + WIDTH + " columns";
+          }
+          pos++;
+        }
+        double value;
+        if (pos >= limit || isCellEnd(buffer.get(pos))) {
+          // Empty cell: missing, left as NaN for the imputer
+          value = Double.NaN;
+        } else {
+          value = readNumber();
+          if (Double.isNaN(value)) {
+            skipToEndOfLine();
+            return "bad number in " + XGBoostModel.FEATURE_NAMES[f];
+          }
+        }
+        row[offset + f] = value;
+      }
+      if (pos < limit && buffer.get(pos) == ',') {
+        // Optional Outcome column
+        pos++;
+        if (Double.isNaN(readNumber())) {
+          skipToEndOfLine();
+          return "bad number in Outcome";
+        }
+      }
+      if (pos < limit && buffer.get(pos) == '\r') {
+        pos++;
+      }
+      if (pos < limit && buffer.get(pos) != '\n') {
+        skipToEndOfLine();
+        return "expected " + WIDTH + " columns";
+      }
+      return validate(row, offset);
+    }
+
+    // Missing (NaN) values pass; the imputer deals with them
+    private static String validate(double[] row, int offset) {
+      if (row[offset] < 0) {
+        return "Pregnancies must be 0 or higher";
+      }
+      for (MeasurementConfig config : FeatureSchema.MEASUREMENTS) {
+        double value = row[offset + config.featureIndex()];
+        if (value == value && !config.isValid(value)) {
+          return config.name + " outside " + config.absoluteMin + "-" + config.absoluteMax;
+        }
+      }
+      return null;
+    }
+
+    private static boolean isCellEnd(byte b) {
+      return b == ',' || b == '\n' || b == '\r';
+    }
+
+    void nextLine() {
+      skipToEndOfLine();
+      if (pos < limit) {
+        pos++;
+      }
+    }
+
+    private void skipToEndOfLine() {
+      while (pos < limit && buffer.get(pos) != '\n') {
+        pos++;
+      }
+    }
+
+    // Decimal with optional sign, fraction and exponent; NaN if malformed
+    private double readNumber() {
+      int start = pos;
+      boolean negative = false;
+      if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+        negative = buffer.get(pos) == '-';
+        pos++;
+      }
+      long mantissa = 0;
+      int digits = 0;
+      int scale = 0;
+      boolean exact = true;
+      boolean seenDot = false;
+      while (pos < limit) {
+        byte b = buffer.get(pos);
+        if (b >= '0' && b <= '9') {
+          if (mantissa < (1L << 53) / 10) {
+            mantissa = mantissa * 10 + (b - '0');
+            if (seenDot) {
+              scale++;
+            }
+          } else {
+            exact = false;
+          }
+          digits++;
+        } else if (b == '.' && !seenDot) {
+          seenDot = true;
+        } else {
+          break;
+        }
+        pos++;
+      }
+      if (digits == 0) {
+        return Double.NaN;
+      }
+      if (pos < limit && (buffer.get(pos) == 'e' || buffer.get(pos) == 'E')) {
+        exact = false;
+        pos++;
+        if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+          pos++;
+        }
+        int expStart = pos;
+        while (pos < limit && buffer.get(pos) >= '0' && buffer.get(pos) <= '9') {
+          pos++;
+        }
+        if (pos == expStart) {
+          return Double.NaN;
+        }
+      }
+      if (exact && scale < POWERS_OF_TEN.length) {
+        // Both operands are exact doubles, so one division rounds exactly like parseDouble
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+      }
+      byte[] text = new byte[pos - start];
+      for (int i = 0; i < text.length; i++) {
+        text[i] = buffer.get(start + i);
+      }
+      return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+      1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+  }
+
+  // Growable byte buffer that formats numbers without going through String
+  static final class ByteSink {
+    byte[] bytes;
+    int size;
+
+    ByteSink(int capacity) {
+      bytes = new byte[capacity];
+    }
+
+    ByteSink append(byte b) {
+      if (size == bytes.length) {
+        bytes = Arrays.copyOf(bytes, size * 2);
+      }
+      bytes[size++] = b;
+      return this;
+    }
+
+    ByteSink append(char c) {
+      return append((byte) c);
+    }
+
+    ByteSink appendAscii(String s) {
+      for (int i = 0; i < s.length(); i++) {
+        append(s.charAt(i) == ',' ? ';' : s.charAt(i));
+      }
+      return this;
+    }
+
+    ByteSink appendLong(long value) {
+      if (value == 0) {
+        return append('0');
+      }
+      int start = size;
+      while (value > 0) {
+        append((byte) ('0' + value % 10));
+        value /= 10;
+      }
+      for (int i = start, j = size - 1; i < j; i++, j--) {
+        byte tmp = bytes[i];
+        bytes[i] = bytes[j];
+        bytes[j] = tmp;
+      }
+      return this;
+    }
+
+    // Probability in [0, 1] with 6 decimals
+    ByteSink appendProbability(float probability) {
+      long micros = Math.round(probability * 1_000_000d);
+      append((byte) ('0' + micros / 1_000_000)).append('.');
+      long fraction = micros % 1_000_000;
+      for (long div = 100_000; div > 0; div /= 10) {
+        append((byte) ('0' + (fraction / div) % 10));
+      }
+      return this;
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package JavaBackEnd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * The model's trees turned into straight-line Java code: one method of nested {@code if (f1 <
+ * 127.5f)} blocks per tree, compiled in memory with {@code javax.tools} and loaded as a hidden
+ * class in this package.
+ *
+ * <p>With thresholds and leaf values as constants and no array walks, the JIT can treat every tree
+ * as ordinary branchy code. Needs a JDK at runtime; {@code EngineAgreementTest} checks the result
+ * against {@link FlatEnsemble} bit for bit.
+ */
+public final class CompiledEnsemble {
+  private static final String CLASS_NAME = "GeneratedTrees";
+
+  // A JDK interface so javac needs nothing from our own classpath
+  private final ToDoubleFunction<double[]> code;
+
+  private CompiledEnsemble(ToDoubleFunction<double[]> code) {
+    this.code = code;
+  }
+
+  public static CompiledEnsemble compile(XGBoostModel model) {
+    byte[] bytes = javac(generateSource(model));
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+      @SuppressWarnings("unchecked")
+      ToDoubleFunction<double[]> code =
+          (ToDoubleFunction<double[]>)
+              lookup
+                  .findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                  .invoke();
+      return new CompiledEnsemble(code);
+    } catch (Throwable t) {
+      throw new IllegalStateException("Could not load the compiled trees", t);
+    }
+  }
+
+  // Same float arithmetic, in the same order, as FlatEnsemble.predictMargin
+  public float predictMargin(double[] features) {
+    return (float) code.applyAsDouble(features);
+  }
+
+  public float predictProbability(double[] features) {
+    return XGBoostModel.sigmoid(predictMargin(features));
+  }
+
+  static String generateSource(XGBoostModel model) {
+    int numFeatures = model.getNumFeatures();
+    StringBuilder params = new StringBuilder();
+    StringBuilder args = new StringBuilder();
+    for (int f = 0; f < numFeatures; f++) {
+      params.append(f > 0 ? ", " : "").append("float f").append(f);
+      args.append(f > 0 ? ", " : "").append('f').append(f);
+    }
+
+    StringBuilder src = new StringBuilder(256 * 1024);
+    src.append("package JavaBackEnd;\n\n");
+    src.append("final class ")
+        .append(CLASS_NAME)
+        .append(" implements java.util.function.ToDoubleFunction<double[]> {\n");
+    src.append("  @Override\n  public double applyAsDouble(double[] x) {\n");
+    src.append("    if (x.length != ").append(numFeatures).append(") {\n");
+    src.append("      throw new IllegalArgumentException(\"Expected ")
+        .append(numFeatures)
+        .append(" features but got \" + x.length);\n    }\n");
+    for (int f = 0; f < numFeatures; f++) {
+      src.append("    float f").append(f).append(" = (float) x[").append(f).append("];\n");
+    }
+    src.append("    float m = ").append(literal(model.getBaseMargin())).append(";\n");
+    for (int t = 0; t < model.getNumTrees(); t++) {
+      src.append("    m += t").append(t).append('(').append(args).append(");\n");
+    }
+    src.append("    return m;\n  }\n");
+
+    for (int t = 0; t < model.getNumTrees(); t++) {
+      src.append("\n  private static float t").append(t).append('(').append(params).append(") {\n");
+      appendNode(src, model.getTree(t), 0, 2);
+      src.append("  }\n");
+    }
+    return src.append("}\n").toString();
+  }
+
+  private static void appendNode(StringBuilder src, XGBoostModel.Tree tree, int node, int depth) {
+    String indent = "  ".repeat(depth);
+    if (tree.isLeaf(node)) {
+      src.append(indent).append("return ").append(literal(tree.leafValue(node))).append(";\n");
+      return;
+    }
+    String value = "f" + tree.splitIndices[node];
+    String threshold = literal(tree.splitConditions[node]);
+    // NaN fails both comparisons, so the negated form sends missing values left
+    String condition =
+        tree.defaultLeft[node]
+            ? "!(" + value + " >= " + threshold + ")"
+            : value + " < " + threshold;
+    src.append(indent).append("if (").append(condition).append(") {\n");
+    appendNode(src, tree, tree.leftChildren[node], depth + 1);
+    src.append(indent).append("} else {\n");
+    appendNode(src, tree, tree.rightChildren[node], depth + 1);
+    src.append(indent).append("}\n");
+  }
+
+  // Float.toString gives the shortest decimal that reads back as the same float
+  private static String literal(float value) {
+    if (Float.isFinite(value)) {
+      return Float.toString(value) + "f";
+    }
+    return "Float.intBitsToFloat(0x" + Integer.toHexString(Float.floatToRawIntBits(value)) + ")";
+  }
+
+  private static byte[] javac(String source) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("Compiling the trees needs a JDK, not just a JRE");
+    }
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    ByteArrayOutputStream classFile = new ByteArrayOutputStream();
+    StandardJavaFileManager standard =
+        compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+    JavaFileManager inMemory =
+        new ForwardingJavaFileManager<>(standard) {
+          @Override
+          public JavaFileObject getJavaFileForOutput(
+              Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            return new SimpleJavaFileObject(
+                URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+              @Override
+              public OutputStream openOutputStream() {
+                return classFile;
+              }
+            };
+          }
+        };
+    JavaFileObject unit =
+        new SimpleJavaFileObject(
+            URI.create("mem:///JavaBackEnd/" + CLASS_NAME + ".java"), JavaFileObject.Kind.SOURCE) {
+          @Override
+          public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+          }
+        };
+
+    boolean ok =
+        compiler
+            .getTask(
+                null, inMemory, diagnostics, List.of("-g:none", "-proc:none"), null, List.of(unit))
+            .call();
+    if (!ok) {
+      StringBuilder message = new StringBuilder("Generated tree source did not compile:");
+      for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+        message.append('\n').append(d.getLineNumber()).append(": ").append(d.getMessage(null));
+      }
+      throw new IllegalStateException(message.toString());
+    }
+    return classFile.toByteArray();
+  }
+}
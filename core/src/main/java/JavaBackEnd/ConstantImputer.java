@@ -0,0 +1,159 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replaces each missing feature with a fixed per-feature value, e.g. its median in a reference
+ * dataset.
+ *
+ * <p>Batches are imputed column by column: the fill value is hoisted out of the loop and each
+ * strided pass is a compare and a select per row, so it costs a small fraction of scoring.
+ */
+public final class ConstantImputer implements Imputer {
+  /**
+   * Medians of the 768-row Pima Indians Diabetes dataset the model was trained on. Zeros in the
+   * {@link #ZERO_MEANS_MISSING} columns are placeholders for unmeasured values there, so those
+   * medians are over the non-zero rows only.
+   */
+  private static final double[] PIMA_MEDIANS = {3, 117, 72, 29, 125, 32.3, 0.3725, 29};
+
+  // Glucose, BloodPressure, SkinThickness, Insulin and BMI: 0 is not a real measurement
+  private static final int[] ZERO_MEANS_MISSING = {1, 2, 3, 4, 5};
+
+  private final double[] fill;
+  private final String name;
+
+  // fill holds one value per feature, in FeatureVector order
+  public ConstantImputer(double[] fill, String name) {
+    if (fill.length != FeatureVector.WIDTH) {
+      throw new IllegalArgumentException(
+          "Expected " + FeatureVector.WIDTH + " fill values but got " + fill.length);
+    }
+    for (double value : fill) {
+      if (Double.isNaN(value)) {
+        throw new IllegalArgumentException("Fill values can't be NaN");
+      }
+    }
+    this.fill = fill.clone();
+    this.name = name;
+  }
+
+  public static ConstantImputer pimaMedians() {
+    return new ConstantImputer(PIMA_MEDIANS, "median");
+  }
+
+  // The assistant's original behaviour: the bottom of the normal range, no pregnancies
+  public static ConstantImputer normalRangeMin() {
+    double[] fill = new double[FeatureVector.WIDTH];
+    for (MeasurementConfig config : FeatureSchema.MEASUREMENTS) {
+      fill[config.featureIndex()] = config.min;
+    }
+    return new ConstantImputer(fill, "min");
+  }
+
+  /**
+   * Per-feature medians of a CSV with a header naming the {@link XGBoostModel#FEATURE_NAMES}
+   * columns, in any order and alongside other columns. Empty cells, NaN and zeros in the {@link
+   * #ZERO_MEANS_MISSING} columns are skipped.
+   */
+  public static ConstantImputer mediansOf(Path csv) throws IOException {
+    List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+    if (lines.isEmpty()) {
+      throw new IOException(csv + " is empty");
+    }
+    List<String> header = Arrays.asList(lines.get(0).trim().split(","));
+    int[] columns = new int[FeatureVector.WIDTH];
+    for (int f = 0; f < columns.length; f++) {
+      columns[f] = header.indexOf(XGBoostModel.FEATURE_NAMES[f]);
+      if (columns[f] < 0) {
+        throw new IOException(csv + " has no " + XGBoostModel.FEATURE_NAMES[f] + " column");
+      }
+    }
+
+    double[][] values = new double[FeatureVector.WIDTH][lines.size() - 1];
+    int[] counts = new int[FeatureVector.WIDTH];
+    for (int i = 1; i < lines.size(); i++) {
+      String[] fields = lines.get(i).split(",", -1);
+      if (fields.length < header.size()) {
+        continue;
+      }
+      for (int f = 0; f < columns.length; f++) {
+        String text = fields[columns[f]].trim();
+        if (text.isEmpty()) {
+          continue;
+        }
+        double value;
+        try {
+          value = Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+          throw new IOException(csv + " line " + (i + 1) + ": bad number '" + text + "'");
+        }
+        if (Double.isNaN(value) || (value == 0 && zeroMeansMissing(f))) {
+          continue;
+        }
+        values[f][counts[f]++] = value;
+      }
+    }
+
+    double[] medians = new double[FeatureVector.WIDTH];
+    for (int f = 0; f < medians.length; f++) {
+      int n = counts[f];
+      if (n == 0) {
+        throw new IOException(csv + " has no values for " + XGBoostModel.FEATURE_NAMES[f]);
+      }
+      Arrays.sort(values[f], 0, n);
+      medians[f] = n % 2 == 1 ? values[f][n / 2] : (values[f][n / 2 - 1] + values[f][n / 2]) / 2;
+    }
+    return new ConstantImputer(medians, "median of " + csv.getFileName());
+  }
+
+  private static boolean zeroMeansMissing(int feature) {
+    for (int f : ZERO_MEANS_MISSING) {
+      if (f == feature) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public double fillValue(int feature) {
+    return fill[feature];
+  }
+
+  @Override
+  public int impute(FeatureVector features) {
+    int filled = 0;
+    for (int missing = features.missingMask(); missing != 0; missing &= missing - 1) {
+      int f = Integer.numberOfTrailingZeros(missing);
+      features.set(f, fill[f]);
+      filled++;
+    }
+    return filled;
+  }
+
+  @Override
+  public void imputeBatch(double[] packedRows, int rowCount) {
+    int width = FeatureVector.WIDTH;
+    int end = rowCount * width;
+    if (rowCount < 0 || end > packedRows.length) {
+      throw new IllegalArgumentException("packedRows holds fewer than " + rowCount + " rows");
+    }
+    for (int f = 0; f < width; f++) {
+      double value = fill[f];
+      for (int i = f; i < end; i += width) {
+        double v = packedRows[i];
+        packedRows[i] = v != v ? value : v;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
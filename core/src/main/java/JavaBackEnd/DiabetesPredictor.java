@@ -0,0 +1,31 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+
+// Anything that can score the 8 Pima features (see XGBoostModel.FEATURE_NAMES)
+public interface DiabetesPredictor {
+  // Probability of diabetes, in [0, 1]
+  float predictProbability(double[] features) throws IOException;
+
+  // 0/1 label at the configured decision threshold, see XGBoostModel.toLabel
+  default int predict(double[] features) throws IOException {
+    return XGBoostModel.toLabel(predictProbability(features));
+  }
+
+  // Per-feature contributions to the margin, bias last (see TreeExplainer); false if this
+  // predictor can't explain itself
+  default boolean explain(double[] features, double[] contributions) throws IOException {
+    return false;
+  }
+
+  // Identifies the model behind the next prediction (see XGBoostModel.getFingerprint), 0 if unknown
+  default int getModelFingerprint() {
+    return 0;
+  }
+
+  // A predictor for one request that scores, explains and identifies it with the same model even
+  // if this one switches models in between; this, when it only ever has one
+  default DiabetesPredictor pinned() {
+    return this;
+  }
+}
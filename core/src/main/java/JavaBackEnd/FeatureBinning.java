@@ -0,0 +1,87 @@
+package JavaBackEnd;
+
+import java.util.Arrays;
+
+/**
+ * The distinct split thresholds the model uses on each feature.
+ *
+ * <p>A split sends {@code v} left iff {@code v < threshold}, so two values that have the same
+ * number of thresholds at or below them take the same branch at every split on that feature. That
+ * count is the value's bin, and a row's bins determine its prediction exactly. Missing values (NaN)
+ * get their own bin past the last one.
+ */
+public final class FeatureBinning {
+  private final float[][] thresholds;
+
+  private FeatureBinning(float[][] thresholds) {
+    this.thresholds = thresholds;
+  }
+
+  public static FeatureBinning of(XGBoostModel model) {
+    return of(model.getFlatEnsemble());
+  }
+
+  static FeatureBinning of(FlatEnsemble flat) {
+    int numFeatures = flat.numFeatures;
+    float[][] all = new float[numFeatures][];
+    int[] counts = new int[numFeatures];
+    for (int f = 0; f < numFeatures; f++) {
+      all[f] = new float[16];
+    }
+    // Every node of every tree; leaves have no feature
+    for (int node = 0; node < flat.getNumNodes(); node++) {
+      int f = flat.feature[node];
+      if (f >= 0) {
+        if (counts[f] == all[f].length) {
+          all[f] = Arrays.copyOf(all[f], counts[f] * 2);
+        }
+        all[f][counts[f]++] = flat.value[node];
+      }
+    }
+    float[][] thresholds = new float[numFeatures][];
+    for (int f = 0; f < numFeatures; f++) {
+      float[] sorted = Arrays.copyOf(all[f], counts[f]);
+      Arrays.sort(sorted);
+      int unique = 0;
+      for (int i = 0; i < sorted.length; i++) {
+        if (unique == 0 || sorted[i] != sorted[unique - 1]) {
+          sorted[unique++] = sorted[i];
+        }
+      }
+      thresholds[f] = Arrays.copyOf(sorted, unique);
+    }
+    return new FeatureBinning(thresholds);
+  }
+
+  public int getNumFeatures() {
+    return thresholds.length;
+  }
+
+  // Bins 0..thresholds, plus one for NaN
+  public int numBins(int feature) {
+    return thresholds[feature].length + 2;
+  }
+
+  float[] thresholds(int feature) {
+    return thresholds[feature];
+  }
+
+  public int bin(int feature, float value) {
+    float[] t = thresholds[feature];
+    if (value != value) {
+      return t.length + 1;
+    }
+    // Number of thresholds <= value
+    int low = 0;
+    int high = t.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (t[mid] <= value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
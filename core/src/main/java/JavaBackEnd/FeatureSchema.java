@@ -0,0 +1,187 @@
+package JavaBackEnd;
+
+/**
+ * The questions the assistant asks and how their answers become the model's feature vector.
+ *
+ * <p>Answers are collected in a {@link FeatureVector}; a measurement the user could not provide
+ * stays missing until an {@link Imputer} fills it in. {@link MeasurementConfig#name} and {@link
+ * #PREGNANCIES} are the field names used by the HTTP API.
+ */
+public final class FeatureSchema {
+  public static final String PREGNANCIES = "pregnancies";
+
+  // Updated measurements with index parameter
+  public static final MeasurementConfig[] MEASUREMENTS = {
+    new MeasurementConfig(
+        "glucose",
+        "fasting blood glucose level",
+        "mg/dL",
+        70,
+        100,
+        40,
+        400,
+        "<html><b> What does Blood Glucose Level Mean? </b> <br>The blood glucose level is the"
+            + " amount of glucose in the blood. Glucose is a sugar that comes from the foods we"
+            + " eat, and it's also formed and stored inside the body. It's the main source of"
+            + " energy for the cells of our body, and it's carried to each cell through the"
+            + " bloodstream.<br> <br><b>How to measure blood glucose:</b><br>1. <b>At home:</b> Use"
+            + " a glucose meter and test strips. Before testing, ensure you've fasted (no eating or"
+            + " drinking except water) for 8-12 hours. Wash your hands, insert a test strip, prick"
+            + " your fingertip with a lancet, and apply a drop of blood to the strip. The meter"
+            + " will display your blood glucose level. <br>2. <b>At pharmacy:</b> Visit any"
+            + " pharmacy for a quick test<br>3. <b>Doctor's office:</b> Schedule a blood test with"
+            + " your physician</html>",
+        0),
+    new MeasurementConfig(
+        "diastolic",
+        "diastolic blood pressure (lower number)",
+        "mm Hg",
+        60,
+        80,
+        30,
+        130,
+        "<html><b> What is Diastolic Blood Pressure? </b><br>Diastolic pressure is the pressure"
+            + " during the resting phase between heartbeats. \"This pressure plays a critical role"
+            + " in helping coronary vessels supply oxygen to the heart muscle.\"<br>According to"
+            + " current guidelines, normal blood pressure is a systolic number less than 120"
+            + " millimeters of mercury (mm Hg) and a diastolic number less than 80 mm Hg. A"
+            + " systolic number of 120 to 129, with the diastolic measurement less than 80, is"
+            + " deemed \"elevated.\"<br>Diastolic blood pressure is the second, or bottom, number"
+            + " in a blood pressure reading, and it indicates the pressure in your arteries between"
+            + " heartbeats, when your heart muscle is at rest. It represents the minimum pressure"
+            + " in the arteries.<br> <br><b>How to measure blood pressure:</b><br><br>To measure"
+            + " your diastolic blood pressure at home, you'll need a blood pressure cuff and"
+            + " stethoscope, or an automatic blood pressure monitor.• Sit quietly for 5 minutes"
+            + " before measuring<br>• Palpate the brachial artery, place the stethoscope diaphragm"
+            + " over it, and inflate the cuff until you can no longer feel the pulse. Slowly"
+            + " release air and listen for the first sound (systolic pressure) and the last sound"
+            + " (diastolic pressure). <br>If you use an automatic monitor then inflate the cuff"
+            + " according to the device's instructions and wait for the reading. • Avoid"
+            + " caffeine/exercise 30 minutes before</html>",
+        1),
+    new MeasurementConfig(
+        "skin_thickness",
+        "triceps skin fold thickness",
+        "mm",
+        10,
+        25,
+        5,
+        60,
+        "<html><b> What is Skin Thickness? </b> <br>In people with diabetes, skin thickness,"
+            + " particularly in the dermis (the layer beneath the epidermis), can be increased, a"
+            + " condition sometimes referred to as \"diabetic thick skin\" or scleredema"
+            + " diabeticorum. This thickening is due to changes in collagen and other connective"
+            + " tissue components within the skin. While some studies have shown increased skin"
+            + " thickness in diabetic patients, others have indicated no significant difference"
+            + " compared to non-diabetic individuals. <br> <br><b>About skin fold"
+            + " measurement:</b><br>This is typically measured by health professionals<br>using"
+            + " specialized calipers at the back of your upper arm</html>",
+        2),
+    new MeasurementConfig(
+        "insulin",
+        "insulin level",
+        "mu U/ml",
+        2,
+        25,
+        0.5,
+        300,
+        "<html><b> What is insuline?</b><br>Insulin is a hormone produced in the pancreas that"
+            + " regulates blood sugar levels by allowing glucose to enter cells for energy. Without"
+            + " insulin, glucose builds up in the bloodstream, potentially leading to high blood"
+            + " sugar and complications like diabetes. <br>An insulin level blood test measures the"
+            + " amount of insulin hormone in your blood. Insulin helps your body use glucose from"
+            + " food for energy. The test helps doctors diagnose and monitor conditions like"
+            + " diabetes and insulin resistance, and it can be used to monitor the effectiveness of"
+            + " medications or surgery. <br> <br><b>About insulin levels:</b><br>This requires a"
+            + " blood test ordered by your doctor.<br>",
+        3),
+    new MeasurementConfig(
+        "bmi",
+        "BMI (Body Mass Index)",
+        "",
+        18.5,
+        24.9,
+        10,
+        70,
+        "<html><b> What is BMI?</b><br>BMI, or Body Mass Index, is a measure of body fat based on"
+            + " height and weight that applies to adults. It's a quick, inexpensive, and reliable"
+            + " way to assess whether someone is underweight, overweight, or obese."
+            + " <br><br><b>Calculating BMI:</b><br>BMI = weight(kg) /"
+            + " height(m)<sup>2</sup><br>Example: 70kg ÷ (1.75m × 1.75m) = 22.9</html>",
+        4),
+    new MeasurementConfig(
+        "dpf",
+        "Diabetes Pedigree Function",
+        "",
+        0.1,
+        1.2,
+        0,
+        3,
+        "<html><b> What is Diabetes Pedigree Function</b><br>The Diabetes Pedigree Function (DPF)"
+            + " is a score that estimates the likelihood of developing diabetes based on an"
+            + " individual's family history and age.<br><br><b>About this value:</b><br>This"
+            + " estimates genetic influence based on family history.<br>Your doctor can help"
+            + " calculate this for you.</html>",
+        5),
+    new MeasurementConfig(
+        "age",
+        "your age",
+        "years",
+        18,
+        45,
+        1 /*0.083*/,
+        160,
+        "<html><b>Why we ask:</b><br>"
+            + "Diabetes risk increases with age.<br>"
+            + "We use this to personalize your assessment.</html>",
+        6)
+  };
+
+  private FeatureSchema() {}
+
+  // True when a measurement the user was asked about has no value
+  public static boolean hasMissingValues(FeatureVector features) {
+    for (MeasurementConfig config : MEASUREMENTS) {
+      if (features.isMissing(config)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // The imputer picked by -Ddiabetes.imputer, created on first use
+  public static Imputer defaultImputer() {
+    return DefaultImputer.INSTANCE;
+  }
+
+  private static final class DefaultImputer {
+    static final Imputer INSTANCE = Imputer.fromProperty();
+  }
+
+  public static void fillMissingWithDefaults(FeatureVector features) {
+    fillMissing(features, defaultImputer());
+  }
+
+  public static void fillMissing(FeatureVector features, Imputer imputer) {
+    long start = System.nanoTime();
+    int imputed = imputer.impute(features);
+    Metrics.GLOBAL.add(Metrics.Counter.IMPUTED_VALUES, imputed);
+    Metrics.GLOBAL.record(Metrics.Timer.IMPUTE, start);
+  }
+
+  // Range checks shared by every entry point; missing measurements are left to the caller
+  public static void validate(FeatureVector features) {
+    if (!features.isMissing(FeatureVector.PREGNANCIES)
+        && features.get(FeatureVector.PREGNANCIES) < 0) {
+      throw new IllegalArgumentException(PREGNANCIES + " must be 0 or higher");
+    }
+    for (MeasurementConfig config : MEASUREMENTS) {
+      if (!features.isMissing(config) && !config.isValid(features.get(config))) {
+        throw new IllegalArgumentException(
+            String.format(
+                "%s must be between %s and %s",
+                config.name, config.absoluteMin, config.absoluteMax));
+      }
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package JavaBackEnd;
+
+import java.util.Arrays;
+
+/**
+ * One person's answers as the model's feature vector: {@link #PREGNANCIES} first, then each
+ * measurement at its {@link MeasurementConfig#featureIndex()}, i.e. {@link
+ * XGBoostModel#FEATURE_NAMES} order.
+ *
+ * <p>Values are primitive doubles and a bitmask records which features have no value yet (bit
+ * {@code i} for feature {@code i}), so filling, validating and imputing a vector never boxes or
+ * goes through strings. A new or {@link #clear() cleared} vector has every feature missing.
+ * Instances are mutable and meant to be reused by a single thread.
+ */
+public final class FeatureVector {
+  public static final int PREGNANCIES = 0;
+  public static final int WIDTH = FeatureSchema.MEASUREMENTS.length + 1;
+  private static final int ALL_MISSING = (1 << WIDTH) - 1;
+
+  private final double[] values = new double[WIDTH];
+  private int missing = ALL_MISSING;
+
+  public double get(int feature) {
+    return values[feature];
+  }
+
+  public double get(MeasurementConfig config) {
+    return values[config.featureIndex()];
+  }
+
+  public void set(int feature, double value) {
+    values[feature] = value;
+    missing &= ~(1 << feature);
+  }
+
+  public void set(MeasurementConfig config, double value) {
+    set(config.featureIndex(), value);
+  }
+
+  public void setMissing(int feature) {
+    values[feature] = 0;
+    missing |= 1 << feature;
+  }
+
+  public void setMissing(MeasurementConfig config) {
+    setMissing(config.featureIndex());
+  }
+
+  public boolean isMissing(int feature) {
+    return (missing & (1 << feature)) != 0;
+  }
+
+  public boolean isMissing(MeasurementConfig config) {
+    return isMissing(config.featureIndex());
+  }
+
+  public boolean hasMissing() {
+    return missing != 0;
+  }
+
+  // Bit i set when feature i has no value
+  public int missingMask() {
+    return missing;
+  }
+
+  public void clear() {
+    Arrays.fill(values, 0);
+    missing = ALL_MISSING;
+  }
+
+  // Copies the values into out[offset..offset + WIDTH); every feature must be present
+  public void copyTo(double[] out, int offset) {
+    if (missing != 0) {
+      throw new IllegalStateException("Can't predict using incomplete data");
+    }
+    System.arraycopy(values, 0, out, offset, WIDTH);
+  }
+
+  // A fresh copy, safe to hand to another thread
+  public double[] toArray() {
+    double[] out = new double[WIDTH];
+    copyTo(out, 0);
+    return out;
+  }
+}
@@ -0,0 +1,236 @@
+package JavaBackEnd;
+
+import java.util.Arrays;
+
+/**
+ * All trees of an {@link XGBoostModel} packed into one struct-of-arrays node table.
+ *
+ * <p>Each tree is renumbered breadth-first so that the two children of a split are adjacent: the
+ * right child is always {@code left + 1}, which leaves a single child array and a branch-free step.
+ * Leaves have {@code feature == -1} and keep their output in {@code value}. Scoring a row touches
+ * only these primitive arrays and allocates nothing.
+ *
+ * <p>The batch methods walk the trees one at a time over blocks of {@link #BLOCK_ROWS} rows, so a
+ * tree's nodes stay hot in cache while the whole block is pushed through it.
+ */
+public final class FlatEnsemble implements BatchMarginScorer {
+  public static final int BLOCK_ROWS = 64;
+
+  // Package-private so the optional vector engine can read the node table directly
+  final int[] roots;
+  final int[] feature;
+  final int[] left;
+  final float[] value;
+  final boolean[] defaultLeft;
+  final int numFeatures;
+  final float baseMargin;
+
+  private FlatEnsemble(
+      int[] roots,
+      int[] feature,
+      int[] left,
+      float[] value,
+      boolean[] defaultLeft,
+      int numFeatures,
+      float baseMargin) {
+    this.roots = roots;
+    this.feature = feature;
+    this.left = left;
+    this.value = value;
+    this.defaultLeft = defaultLeft;
+    this.numFeatures = numFeatures;
+    this.baseMargin = baseMargin;
+  }
+
+  static FlatEnsemble compile(XGBoostModel.Tree[] trees, int numFeatures, float baseMargin) {
+    int total = 0;
+    for (XGBoostModel.Tree tree : trees) {
+      total += tree.numNodes();
+    }
+
+    int[] roots = new int[trees.length];
+    int[] feature = new int[total];
+    int[] left = new int[total];
+    float[] value = new float[total];
+    boolean[] defaultLeft = new boolean[total];
+
+    int next = 0;
+    int[] queue = new int[0];
+    for (int t = 0; t < trees.length; t++) {
+      XGBoostModel.Tree tree = trees[t];
+      if (queue.length < tree.numNodes()) {
+        queue = new int[tree.numNodes()];
+      }
+      // Breadth-first: queue[i] is the original id of the node written at base + i
+      int base = next;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = 0;
+      while (head < tail) {
+        int source = queue[head];
+        int target = base + head;
+        head++;
+        if (tree.isLeaf(source)) {
+          feature[target] = -1;
+          left[target] = -1;
+          value[target] = tree.leafValue(source);
+        } else {
+          feature[target] = tree.splitIndices[source];
+          left[target] = base + tail;
+          defaultLeft[target] = tree.defaultLeft[source];
+          queue[tail++] = tree.leftChildren[source];
+          queue[tail++] = tree.rightChildren[source];
+          value[target] = tree.splitConditions[source];
+        }
+      }
+      roots[t] = base;
+      next = base + tail;
+    }
+    if (next != total) {
+      throw new IllegalArgumentException("Trees contain unreachable nodes");
+    }
+    return new FlatEnsemble(roots, feature, left, value, defaultLeft, numFeatures, baseMargin);
+  }
+
+  public int getNumFeatures() {
+    return numFeatures;
+  }
+
+  public int getNumTrees() {
+    return roots.length;
+  }
+
+  public int getNumNodes() {
+    return feature.length;
+  }
+
+  public float predictMargin(double[] features) {
+    checkWidth(features.length);
+    float margin = baseMargin;
+    for (int root : roots) {
+      int node = root;
+      int f;
+      while ((f = feature[node]) >= 0) {
+        float v = (float) features[f];
+        node = step(node, v);
+      }
+      margin += value[node];
+    }
+    return margin;
+  }
+
+  public float predictMargin(float[] features) {
+    checkWidth(features.length);
+    float margin = baseMargin;
+    for (int root : roots) {
+      int node = root;
+      int f;
+      while ((f = feature[node]) >= 0) {
+        float v = features[f];
+        node = step(node, v);
+      }
+      margin += value[node];
+    }
+    return margin;
+  }
+
+  // Row-major input: row r occupies packedRows[r * numFeatures .. (r + 1) * numFeatures)
+  public void predictMargins(double[] packedRows, int rowCount, float[] out) {
+    predictMargins(packedRows, 0, rowCount, out);
+  }
+
+  // Only touches out[fromRow .. toRow), so disjoint ranges can be scored concurrently
+  @Override
+  public void predictMargins(double[] packedRows, int fromRow, int toRow, float[] out) {
+    checkRange(packedRows, fromRow, toRow, out);
+    Arrays.fill(out, fromRow, toRow, baseMargin);
+    for (int start = fromRow; start < toRow; start += BLOCK_ROWS) {
+      int end = Math.min(toRow, start + BLOCK_ROWS);
+      for (int root : roots) {
+        for (int r = start; r < end; r++) {
+          int offset = r * numFeatures;
+          int node = root;
+          int f;
+          while ((f = feature[node]) >= 0) {
+            node = step(node, (float) packedRows[offset + f]);
+          }
+          out[r] += value[node];
+        }
+      }
+    }
+  }
+
+  public void predictMargins(double[][] rows, float[] out) {
+    checkBatch(rows.length, out);
+    for (double[] row : rows) {
+      checkWidth(row.length);
+    }
+    Arrays.fill(out, 0, rows.length, baseMargin);
+    for (int start = 0; start < rows.length; start += BLOCK_ROWS) {
+      int end = Math.min(rows.length, start + BLOCK_ROWS);
+      for (int root : roots) {
+        for (int r = start; r < end; r++) {
+          double[] row = rows[r];
+          int node = root;
+          int f;
+          while ((f = feature[node]) >= 0) {
+            node = step(node, (float) row[f]);
+          }
+          out[r] += value[node];
+        }
+      }
+    }
+  }
+
+  // Columnar input: columns[f][r] is feature f of row r
+  public void predictMarginsColumnar(double[][] columns, int rowCount, float[] out) {
+    checkWidth(columns.length);
+    checkBatch(rowCount, out);
+    for (double[] column : columns) {
+      if (column.length < rowCount) {
+        throw new IllegalArgumentException("Column is shorter than rowCount");
+      }
+    }
+    Arrays.fill(out, 0, rowCount, baseMargin);
+    for (int start = 0; start < rowCount; start += BLOCK_ROWS) {
+      int end = Math.min(rowCount, start + BLOCK_ROWS);
+      for (int root : roots) {
+        for (int r = start; r < end; r++) {
+          int node = root;
+          int f;
+          while ((f = feature[node]) >= 0) {
+            node = step(node, (float) columns[f][r]);
+          }
+          out[r] += value[node];
+        }
+      }
+    }
+  }
+
+  // Missing values (NaN) fail the comparison and follow the split's default direction
+  private int step(int node, float v) {
+    return left[node] + (v < value[node] || (v != v && defaultLeft[node]) ? 0 : 1);
+  }
+
+  void checkRange(double[] packedRows, int fromRow, int toRow, float[] out) {
+    if (fromRow < 0 || fromRow > toRow) {
+      throw new IllegalArgumentException("Invalid row range " + fromRow + " to " + toRow);
+    }
+    checkBatch(toRow, out);
+    if (packedRows.length < (long) toRow * numFeatures) {
+      throw new IllegalArgumentException("Packed input is shorter than rowCount * numFeatures");
+    }
+  }
+
+  private void checkBatch(int rowCount, float[] out) {
+    if (rowCount < 0 || out.length < rowCount) {
+      throw new IllegalArgumentException("Output array is shorter than rowCount");
+    }
+  }
+
+  private void checkWidth(int width) {
+    if (width != numFeatures) {
+      throw new IllegalArgumentException("Expected " + numFeatures + " features but got " + width);
+    }
+  }
+}
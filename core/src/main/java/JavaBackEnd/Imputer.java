@@ -0,0 +1,54 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Fills in features the user could not provide, before scoring.
+ *
+ * <p>Single answers are imputed in a {@link FeatureVector}; batches are packed rows in {@link
+ * FeatureVector} order where NaN marks a missing value, imputed one feature column at a time.
+ * {@link #fromProperty()} picks the strategy from {@code -Ddiabetes.imputer}:
+ *
+ * <ul>
+ *   <li>{@code min} (default): the bottom of each {@link MeasurementConfig}'s normal range, as the
+ *       assistant has always filled them
+ *   <li>{@code median}: per-feature medians of a reference dataset, see {@link
+ *       ConstantImputer#pimaMedians()}; {@code -Ddiabetes.imputer.reference=data.csv} computes them
+ *       from another file
+ *   <li>{@code native}: no values are made up; the trees send missing features down their {@code
+ *       default_left} branch, as XGBoost does
+ * </ul>
+ */
+public interface Imputer {
+  String PROPERTY = "diabetes.imputer";
+  String REFERENCE_PROPERTY = "diabetes.imputer.reference";
+
+  // Gives every missing feature a value; returns how many were filled
+  int impute(FeatureVector features);
+
+  // Replaces NaN in packedRows[0 .. rowCount * FeatureVector.WIDTH)
+  void imputeBatch(double[] packedRows, int rowCount);
+
+  static Imputer fromProperty() {
+    String name = System.getProperty(PROPERTY, "min");
+    switch (name) {
+      case "median":
+        String reference = System.getProperty(REFERENCE_PROPERTY);
+        if (reference == null) {
+          return ConstantImputer.pimaMedians();
+        }
+        try {
+          return ConstantImputer.mediansOf(Paths.get(reference));
+        } catch (IOException e) {
+          throw new IllegalStateException("Can't read " + reference + ": " + e.getMessage(), e);
+        }
+      case "min":
+        return ConstantImputer.normalRangeMin();
+      case "native":
+        return NativeMissingImputer.INSTANCE;
+      default:
+        throw new IllegalArgumentException("Unknown " + PROPERTY + " '" + name + "'");
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package JavaBackEnd;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader for the model file and small request bodies.
+ *
+ * <p>Objects become {@link LinkedHashMap}s, arrays become {@link ArrayList}s and numbers are kept
+ * as {@link BigDecimal} so that {@code floatValue()} rounds exactly like XGBoost's own loader.
+ * Nesting deeper than {@value #MAX_DEPTH} is rejected like any other malformed input, before the
+ * recursion can run out of stack.
+ */
+public final class Json {
+  public static final int MAX_DEPTH = 256;
+
+  private final String text;
+  private int pos;
+  // Objects and arrays open around the current position
+  private int depth;
+
+  private Json(String text) {
+    this.text = text;
+  }
+
+  public static Object parse(String text) {
+    Json json = new Json(text);
+    json.skipWhitespace();
+    Object value = json.readValue();
+    json.skipWhitespace();
+    if (json.pos != text.length()) {
+      throw json.error("Unexpected trailing content");
+    }
+    return value;
+  }
+
+  // Helpers to walk the parsed tree without casting at every call site
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> object(Object value, String key) {
+    Object child = ((Map<String, Object>) value).get(key);
+    if (!(child instanceof Map)) {
+      throw new IllegalArgumentException("Expected JSON object at '" + key + "'");
+    }
+    return (Map<String, Object>) child;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static List<Object> array(Object value, String key) {
+    Object child = ((Map<String, Object>) value).get(key);
+    if (!(child instanceof List)) {
+      throw new IllegalArgumentException("Expected JSON array at '" + key + "'");
+    }
+    return (List<Object>) child;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static String string(Object value, String key) {
+    Object child = ((Map<String, Object>) value).get(key);
+    if (!(child instanceof String)) {
+      throw new IllegalArgumentException("Expected JSON string at '" + key + "'");
+    }
+    return (String) child;
+  }
+
+  private Object readValue() {
+    if (pos >= text.length()) {
+      throw error("Unexpected end of input");
+    }
+    char c = text.charAt(pos);
+    switch (c) {
+      case '{':
+        return readObject();
+      case '[':
+        return readArray();
+      case '"':
+        return readString();
+      case 't':
+        expectWord("true");
+        return Boolean.TRUE;
+      case 'f':
+        expectWord("false");
+        return Boolean.FALSE;
+      case 'n':
+        expectWord("null");
+        return null;
+      default:
+        return readNumber();
+    }
+  }
+
+  private Map<String, Object> readObject() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    pos++; // '{'
+    enter();
+    skipWhitespace();
+    if (peek() == '}') {
+      pos++;
+      depth--;
+      return map;
+    }
+    while (true) {
+      skipWhitespace();
+      if (peek() != '"') {
+        throw error("Expected object key");
+      }
+      String key = readString();
+      skipWhitespace();
+      expect(':');
+      skipWhitespace();
+      map.put(key, readValue());
+      skipWhitespace();
+      char c = next();
+      if (c == '}') {
+        depth--;
+        return map;
+      }
+      if (c != ',') {
+        throw error("Expected ',' or '}'");
+      }
+    }
+  }
+
+  private List<Object> readArray() {
+    List<Object> list = new ArrayList<>();
+    pos++; // '['
+    enter();
+    skipWhitespace();
+    if (peek() == ']') {
+      pos++;
+      depth--;
+      return list;
+    }
+    while (true) {
+      skipWhitespace();
+      list.add(readValue());
+      skipWhitespace();
+      char c = next();
+      if (c == ']') {
+        depth--;
+        return list;
+      }
+      if (c != ',') {
+        throw error("Expected ',' or ']'");
+      }
+    }
+  }
+
+  private String readString() {
+    pos++; // opening quote
+    StringBuilder sb = new StringBuilder();
+    while (true) {
+      char c = next();
+      if (c == '"') {
+        return sb.toString();
+      }
+      if (c != '\\') {
+        sb.append(c);
+        continue;
+      }
+      char escaped = next();
+      switch (escaped) {
+        case 'b':
+          sb.append('\b');
+          break;
+        case 'f':
+          sb.append('\f');
+          break;
+        case 'n':
+          sb.append('\n');
+          break;
+        case 'r':
+          sb.append('\r');
+          break;
+        case 't':
+          sb.append('\t');
+          break;
+        case 'u':
+          if (pos + 4 > text.length()) {
+            throw error("Bad unicode escape");
+          }
+          sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+          pos += 4;
+          break;
+        default:
+          sb.append(escaped);
+      }
+    }
+  }
+
+  private BigDecimal readNumber() {
+    int start = pos;
+    while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+      pos++;
+    }
+    if (start == pos) {
+      throw error("Unexpected character '" + text.charAt(pos) + "'");
+    }
+    try {
+      return new BigDecimal(text.substring(start, pos));
+    } catch (NumberFormatException e) {
+      throw error("Bad number");
+    }
+  }
+
+  private void enter() {
+    if (++depth > MAX_DEPTH) {
+      throw error("Nested deeper than " + MAX_DEPTH + " levels");
+    }
+  }
+
+  private void expectWord(String word) {
+    if (!text.startsWith(word, pos)) {
+      throw error("Expected '" + word + "'");
+    }
+    pos += word.length();
+  }
+
+  private void expect(char c) {
+    if (next() != c) {
+      throw error("Expected '" + c + "'");
+    }
+  }
+
+  private char peek() {
+    if (pos >= text.length()) {
+      throw error("Unexpected end of input");
+    }
+    return text.charAt(pos);
+  }
+
+  private char next() {
+    char c = peek();
+    pos++;
+    return c;
+  }
+
+  private void skipWhitespace() {
+    while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+      pos++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at offset " + pos);
+  }
+}
@@ -0,0 +1,49 @@
+package JavaBackEnd;
+
+// Measurement configuration with index tracking
+public class MeasurementConfig {
+  public final String name;
+  public final String displayName;
+  public final String unit;
+  public final double min;
+  public final double max;
+  public final double absoluteMin;
+  public final double absoluteMax;
+  public final String instructions;
+  public final int index; // Added index tracking
+
+  public MeasurementConfig(
+      String name,
+      String displayName,
+      String unit,
+      double min,
+      double max,
+      double absoluteMin,
+      double absoluteMax,
+      String instructions,
+      int index) {
+    this.name = name;
+    this.displayName = displayName;
+    this.unit = unit;
+    this.min = min;
+    this.max = max;
+    this.absoluteMax = absoluteMax;
+    this.absoluteMin = absoluteMin;
+    this.instructions = instructions;
+    this.index = index; // Store index position
+  }
+
+  // Added ordinal method to get position
+  public int ordinal() {
+    return index;
+  }
+
+  // Position of this measurement in the model's feature vector (pregnancies come first)
+  public int featureIndex() {
+    return index + 1;
+  }
+
+  public boolean isValid(double value) {
+    return value >= absoluteMin && value <= absoluteMax;
+  }
+}
@@ -0,0 +1,202 @@
+package JavaBackEnd;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Process-wide counters and stage latencies for the prediction path.
+ *
+ * <p>Recording is a {@link LongAdder} or {@link LatencyHistogram} update, cheap enough for every
+ * request. The same numbers are readable as {@link #render() text} (served on {@code GET /metrics})
+ * and as the JMX MBean {@value #OBJECT_NAME}.
+ */
+public final class Metrics implements DynamicMBean {
+  public static final String OBJECT_NAME = "JavaBackEnd:type=Metrics";
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+  public static final Metrics GLOBAL = new Metrics();
+
+  public enum Timer {
+    PARSE,
+    VALIDATE,
+    IMPUTE,
+    QUEUE_WAIT,
+    INFERENCE,
+    LOG_COMMIT
+  }
+
+  public enum Counter {
+    PREDICTIONS,
+    PREDICTION_FAILURES,
+    VALIDATION_FAILURES,
+    IMPUTED_VALUES,
+    PYTHON_ERRORS,
+    PYTHON_WORKERS_DISCARDED,
+    MODEL_RELOADS,
+    MODEL_RELOAD_FAILURES,
+    ASSESSMENTS_LOGGED,
+    ASSESSMENTS_DROPPED,
+    COALESCED_BATCHES,
+    COALESCED_ROWS
+  }
+
+  private final Map<Timer, LatencyHistogram> timers = new EnumMap<>(Timer.class);
+  private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+  private final Map<String, Supplier<Object>> attributes = new LinkedHashMap<>();
+
+  private Metrics() {
+    for (Counter counter : Counter.values()) {
+      LongAdder adder = new LongAdder();
+      counters.put(counter, adder);
+      attributes.put(camelCase(counter.name()), adder::sum);
+    }
+    for (Timer timer : Timer.values()) {
+      LatencyHistogram histogram = new LatencyHistogram();
+      timers.put(timer, histogram);
+      String prefix = camelCase(timer.name());
+      attributes.put(prefix + "Count", histogram::getCount);
+      for (double q : QUANTILES) {
+        attributes.put(
+            prefix + "P" + (int) (q * 100) + "Micros", () -> histogram.percentileNanos(q) / 1e3);
+      }
+      attributes.put(prefix + "MaxMicros", () -> histogram.getMaxNanos() / 1e3);
+    }
+  }
+
+  // Idempotent, so every entry point can call it
+  public static synchronized void registerMBean() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(GLOBAL, name);
+      }
+    } catch (JMException e) {
+      throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+    }
+  }
+
+  // Records the time elapsed since startNanos, a System.nanoTime() reading
+  public void record(Timer timer, long startNanos) {
+    timers.get(timer).record(System.nanoTime() - startNanos);
+  }
+
+  public void increment(Counter counter) {
+    counters.get(counter).increment();
+  }
+
+  public void add(Counter counter, long amount) {
+    counters.get(counter).add(amount);
+  }
+
+  public long get(Counter counter) {
+    return counters.get(counter).sum();
+  }
+
+  public LatencyHistogram histogram(Timer timer) {
+    return timers.get(timer);
+  }
+
+  /** Prometheus text exposition format. */
+  public String render() {
+    StringBuilder text = new StringBuilder(2048);
+    for (Map.Entry<Counter, LongAdder> entry : counters.entrySet()) {
+      String name = "diabetes_" + entry.getKey().name().toLowerCase(Locale.ROOT) + "_total";
+      text.append("# TYPE ").append(name).append(" counter\n");
+      text.append(name).append(' ').append(entry.getValue().sum()).append('\n');
+    }
+    for (Map.Entry<Timer, LatencyHistogram> entry : timers.entrySet()) {
+      String name = "diabetes_" + entry.getKey().name().toLowerCase(Locale.ROOT) + "_seconds";
+      LatencyHistogram histogram = entry.getValue();
+      text.append("# TYPE ").append(name).append(" summary\n");
+      for (double q : QUANTILES) {
+        text.append(name)
+            .append("{quantile=\"")
+            .append(q)
+            .append("\"} ")
+            .append(seconds(histogram.percentileNanos(q)))
+            .append('\n');
+      }
+      text.append(name).append("_sum ").append(seconds(histogram.getSumNanos())).append('\n');
+      text.append(name).append("_count ").append(histogram.getCount()).append('\n');
+    }
+    return text.toString();
+  }
+
+  private static String seconds(long nanos) {
+    return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+  }
+
+  private static String camelCase(String constant) {
+    StringBuilder name = new StringBuilder();
+    for (String part : constant.toLowerCase(Locale.ROOT).split("_")) {
+      name.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+    }
+    return name.toString();
+  }
+
+  @Override
+  public Object getAttribute(String attribute) throws AttributeNotFoundException {
+    Supplier<Object> value = attributes.get(attribute);
+    if (value == null) {
+      throw new AttributeNotFoundException(attribute);
+    }
+    return value.get();
+  }
+
+  @Override
+  public AttributeList getAttributes(String[] names) {
+    AttributeList list = new AttributeList();
+    for (String name : names) {
+      Supplier<Object> value = attributes.get(name);
+      if (value != null) {
+        list.add(new Attribute(name, value.get()));
+      }
+    }
+    return list;
+  }
+
+  @Override
+  public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+    throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+  }
+
+  @Override
+  public AttributeList setAttributes(AttributeList attributes) {
+    return new AttributeList();
+  }
+
+  // The MBeanInfo advertises no operations
+  @Override
+  public Object invoke(String actionName, Object[] params, String[] signature)
+      throws ReflectionException {
+    throw new ReflectionException(
+        new NoSuchMethodException(actionName), "No operation " + actionName);
+  }
+
+  @Override
+  public MBeanInfo getMBeanInfo() {
+    MBeanAttributeInfo[] infos = new MBeanAttributeInfo[attributes.size()];
+    int i = 0;
+    for (Map.Entry<String, Supplier<Object>> entry : attributes.entrySet()) {
+      String type = entry.getValue().get().getClass().getName();
+      infos[i++] = new MBeanAttributeInfo(entry.getKey(), type, entry.getKey(), true, false, false);
+    }
+    return new MBeanInfo(
+        Metrics.class.getName(), "Prediction path metrics", infos, null, null, null);
+  }
+}
@@ -0,0 +1,298 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces single-row requests from many threads into batches for the model's batch engine.
+ *
+ * <p>Callers put requests on a lock-free queue and get a future back. One flusher thread takes them
+ * off and scores them together with {@link XGBoostModel#predictProbabilities(double[], int, int,
+ * float[])} as soon as {@code maxRows} are waiting or the oldest has waited {@code maxDelayMicros},
+ * whichever comes first, then completes every caller's future. A delay of 0 only coalesces what is
+ * already queued, so an idle scorer adds no latency. Callbacks on the futures run on the flusher
+ * thread unless they are attached with an async method. An exception from the model fails only its
+ * batch; an {@link Error} stops the flusher, fails every waiting row and closes the batcher.
+ *
+ * <p>As a {@link DiabetesPredictor} it blocks until the row's batch is scored, so it can stand in
+ * for the model behind {@link PredictionService} or a request thread; {@link #pinned} explains and
+ * identifies a row with the model its batch used. {@link #fromProperties} reads {@code
+ * -Ddiabetes.batch.rows} (at least 2 to enable) and {@code -Ddiabetes.batch.micros}.
+ */
+public final class MicroBatcher implements DiabetesPredictor, AutoCloseable {
+  public static final String ROWS_PROPERTY = "diabetes.batch.rows";
+  public static final String MICROS_PROPERTY = "diabetes.batch.micros";
+  public static final long DEFAULT_MAX_DELAY_MICROS = 200;
+
+  /**
+   * A queued row, which is its own future so that queueing allocates a single object. Once it has
+   * completed normally it also tells which model scored it.
+   */
+  public static final class Request extends CompletableFuture<Float> {
+    final double[] features;
+    final long queuedAt;
+    // Written before the future completes
+    XGBoostModel model;
+
+    Request(double[] features, long queuedAt) {
+      this.features = features;
+      this.queuedAt = queuedAt;
+    }
+
+    // The scoring model's fingerprint (see XGBoostModel.getFingerprint), 0 until scored
+    public int getModelFingerprint() {
+      XGBoostModel scoredBy = model;
+      return scoredBy != null ? scoredBy.getFingerprint() : 0;
+    }
+
+    /** Waits for the probability; a failed batch rethrows the model's runtime exception. */
+    public float await() throws IOException {
+      try {
+        return get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for a batch");
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new IOException("Batch scoring failed", cause);
+      }
+    }
+  }
+
+  private final Supplier<XGBoostModel> models;
+  private final int maxRows;
+  private final long maxDelayNanos;
+  private final int width;
+  private final ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>();
+  private final Thread flusher;
+  private volatile boolean flusherWaiting;
+  private volatile boolean closed;
+  // What stopped the flusher, if anything but close()
+  private volatile Throwable failure;
+
+  /**
+   * Each batch is scored with whatever {@code models} returns when it is flushed, e.g. {@link
+   * ModelRegistry#current()}.
+   */
+  public MicroBatcher(Supplier<XGBoostModel> models, int maxRows, long maxDelayMicros) {
+    if (maxRows < 1 || maxDelayMicros < 0) {
+      throw new IllegalArgumentException(
+          "Need at least one row per batch and a delay of 0 or more");
+    }
+    this.models = models;
+    this.maxRows = maxRows;
+    this.maxDelayNanos = maxDelayMicros * 1000;
+    this.width = models.get().getNumFeatures();
+    this.flusher = new Thread(this::flushLoop, "prediction-batcher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  // Null unless -Ddiabetes.batch.rows asks for batches of 2 or more
+  public static MicroBatcher fromProperties(Supplier<XGBoostModel> models) {
+    int rows = Integer.getInteger(ROWS_PROPERTY, 0);
+    if (rows < 2) {
+      return null;
+    }
+    return new MicroBatcher(models, rows, Long.getLong(MICROS_PROPERTY, DEFAULT_MAX_DELAY_MICROS));
+  }
+
+  /**
+   * Completes with the row's probability once its batch is scored. The array is read on the flusher
+   * thread, so leave it alone until then.
+   */
+  public Request submit(double[] features) {
+    if (features.length != width) {
+      throw new IllegalArgumentException(
+          "Expected " + width + " features but got " + features.length);
+    }
+    Request request = new Request(features, System.nanoTime());
+    if (closed) {
+      request.completeExceptionally(closedException());
+      return request;
+    }
+    queue.offer(request);
+    if (flusherWaiting) {
+      LockSupport.unpark(flusher);
+    }
+    if (closed) {
+      // Raced with close(); the flusher may already be gone
+      failQueued();
+    }
+    return request;
+  }
+
+  @Override
+  public float predictProbability(double[] features) throws IOException {
+    return submit(features).await();
+  }
+
+  // With the model current now, which need not be the one that scored an earlier row; see pinned()
+  @Override
+  public boolean explain(double[] features, double[] contributions) {
+    return models.get().explain(features, contributions);
+  }
+
+  @Override
+  public int getModelFingerprint() {
+    return models.get().getFingerprint();
+  }
+
+  /**
+   * Scores one row through the batcher, then explains and identifies it with the model that scored
+   * its batch. Score first: before that, the model current at the first call is used.
+   */
+  @Override
+  public DiabetesPredictor pinned() {
+    return new Pinned();
+  }
+
+  private final class Pinned implements DiabetesPredictor {
+    private XGBoostModel model;
+
+    @Override
+    public float predictProbability(double[] features) throws IOException {
+      Request request = submit(features);
+      float probability = request.await();
+      model = request.model;
+      return probability;
+    }
+
+    @Override
+    public boolean explain(double[] features, double[] contributions) {
+      return model().explain(features, contributions);
+    }
+
+    @Override
+    public int getModelFingerprint() {
+      return model().getFingerprint();
+    }
+
+    private XGBoostModel model() {
+      if (model == null) {
+        model = models.get();
+      }
+      return model;
+    }
+  }
+
+  private void flushLoop() {
+    Request[] batch = new Request[maxRows];
+    try {
+      flushUntilClosed(batch);
+    } catch (Throwable t) {
+      // Nothing would ever score another row, so refuse new ones and fail every waiting caller
+      failure = t;
+      closed = true;
+      for (Request request : batch) {
+        if (request != null) {
+          request.completeExceptionally(t);
+        }
+      }
+      failQueued();
+      throw t;
+    }
+  }
+
+  private void flushUntilClosed(Request[] batch) {
+    double[] packed = new double[maxRows * width];
+    float[] out = new float[maxRows];
+    while (true) {
+      Request first = queue.poll();
+      if (first == null) {
+        if (closed) {
+          return;
+        }
+        // submit() unparks us when it sees this; checking the queue after setting it means a
+        // request can't slip in unnoticed
+        flusherWaiting = true;
+        if (queue.isEmpty() && !closed) {
+          LockSupport.park(this);
+        }
+        flusherWaiting = false;
+        continue;
+      }
+      int count = 0;
+      batch[count++] = first;
+      long deadline = first.queuedAt + maxDelayNanos;
+      while (count < maxRows) {
+        Request next = queue.poll();
+        if (next != null) {
+          batch[count++] = next;
+          continue;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 || closed) {
+          break;
+        }
+        flusherWaiting = true;
+        if (queue.isEmpty()) {
+          LockSupport.parkNanos(this, remaining);
+        }
+        flusherWaiting = false;
+      }
+      flush(batch, count, packed, out);
+    }
+  }
+
+  private void flush(Request[] batch, int count, double[] packed, float[] out) {
+    // Rows whose callers gave up are not scored
+    int rows = 0;
+    for (int i = 0; i < count; i++) {
+      Request request = batch[i];
+      if (!request.isDone()) {
+        System.arraycopy(request.features, 0, packed, rows * width, width);
+        batch[rows++] = request;
+      }
+    }
+    if (rows > 0) {
+      try {
+        XGBoostModel model = models.get();
+        model.predictProbabilities(packed, 0, rows, out);
+        for (int i = 0; i < rows; i++) {
+          batch[i].model = model;
+          batch[i].complete(out[i]);
+        }
+      } catch (RuntimeException e) {
+        for (int i = 0; i < rows; i++) {
+          batch[i].completeExceptionally(e);
+        }
+      }
+      Metrics.GLOBAL.increment(Metrics.Counter.COALESCED_BATCHES);
+      Metrics.GLOBAL.add(Metrics.Counter.COALESCED_ROWS, rows);
+    }
+    Arrays.fill(batch, 0, count, null);
+  }
+
+  private void failQueued() {
+    for (Request request; (request = queue.poll()) != null; ) {
+      request.completeExceptionally(closedException());
+    }
+  }
+
+  private IllegalStateException closedException() {
+    return new IllegalStateException("MicroBatcher is closed", failure);
+  }
+
+  /** Scores everything already queued, then stops the flusher. The model source is left open. */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(flusher);
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    failQueued();
+  }
+}
@@ -0,0 +1,221 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The model currently used for scoring, replaced in place when the model file changes.
+ *
+ * <p>{@link #watch()} follows the model file, and the {@link BinaryModelFormat} copy that {@link
+ * XGBoostModel#load} prefers when it was converted from that file, with a {@link WatchService}. A
+ * changed file is parsed on the watcher thread and scored against the golden inputs ({@link
+ * #DEFAULT_GOLDEN}: the eight features plus the label XGBoost's own {@code XGBClassifier.predict}
+ * gives, written by {@code predict_diabetes.py --golden}). Only a model that loads, returns
+ * probabilities in [0, 1] and agrees with at least {@code minAgreement} of the golden labels
+ * replaces the current one; anything else is logged and ignored.
+ *
+ * <p>The current and previous models live in one immutable snapshot behind a volatile field, so
+ * scorers never block and never see a half-built model: a request that already called {@link
+ * #current()} finishes on the model it got. {@link #rollback()} swaps the previous model back.
+ */
+public final class ModelRegistry implements DiabetesPredictor, AutoCloseable {
+  public static final Path DEFAULT_GOLDEN = Paths.get("Model", "golden_inputs.csv");
+  public static final double DEFAULT_MIN_AGREEMENT = 0.9;
+  // Writers often touch a file several times; wait for it to settle before loading
+  private static final long QUIET_MILLIS = 500;
+
+  private static final class Snapshot {
+    final XGBoostModel current;
+    final XGBoostModel previous;
+    final int version;
+
+    Snapshot(XGBoostModel current, XGBoostModel previous, int version) {
+      this.current = current;
+      this.previous = previous;
+      this.version = version;
+    }
+  }
+
+  private final Path modelPath;
+  private final Path binaryPath;
+  private final double[][] goldenRows;
+  private final int[] goldenLabels;
+  private final double minAgreement;
+  private volatile Snapshot snapshot;
+  private WatchService watcher;
+
+  public ModelRegistry(Path modelPath, Path goldenPath, double minAgreement) throws IOException {
+    this.modelPath = modelPath.toAbsolutePath();
+    this.binaryPath = BinaryModelFormat.siblingOf(this.modelPath);
+    this.minAgreement = minAgreement;
+    List<String> lines = Files.readAllLines(goldenPath, StandardCharsets.UTF_8);
+    int width = XGBoostModel.FEATURE_NAMES.length;
+    goldenRows = new double[lines.size() - 1][width];
+    goldenLabels = new int[lines.size() - 1];
+    // First line is the header
+    for (int i = 1; i < lines.size(); i++) {
+      String[] fields = lines.get(i).split(",");
+      if (fields.length != width + 1) {
+        throw new IOException(
+            goldenPath + " line " + (i + 1) + ": expected " + (width + 1) + " columns");
+      }
+      for (int f = 0; f < width; f++) {
+        goldenRows[i - 1][f] = Double.parseDouble(fields[f].trim());
+      }
+      goldenLabels[i - 1] = Integer.parseInt(fields[width].trim());
+    }
+    snapshot = new Snapshot(loadAndValidate(), null, 1);
+  }
+
+  public static ModelRegistry openDefault() throws IOException {
+    return new ModelRegistry(XGBoostModel.DEFAULT_PATH, DEFAULT_GOLDEN, DEFAULT_MIN_AGREEMENT);
+  }
+
+  public XGBoostModel current() {
+    return snapshot.current;
+  }
+
+  // Null until the first successful reload
+  public XGBoostModel previous() {
+    return snapshot.previous;
+  }
+
+  public int getVersion() {
+    return snapshot.version;
+  }
+
+  @Override
+  public float predictProbability(double[] features) {
+    return current().predictProbability(features);
+  }
+
+  @Override
+  public boolean explain(double[] features, double[] contributions) {
+    return current().explain(features, contributions);
+  }
+
+  @Override
+  public int getModelFingerprint() {
+    return current().getFingerprint();
+  }
+
+  @Override
+  public DiabetesPredictor pinned() {
+    return current();
+  }
+
+  // Loads the model file now; keeps the current model and throws if the new one is rejected
+  public synchronized void reload() throws IOException {
+    XGBoostModel candidate = loadAndValidate();
+    Snapshot old = snapshot;
+    snapshot = new Snapshot(candidate, old.current, old.version + 1);
+    Metrics.GLOBAL.increment(Metrics.Counter.MODEL_RELOADS);
+  }
+
+  // Swaps the previous model back in; false if there is none
+  public synchronized boolean rollback() {
+    Snapshot old = snapshot;
+    if (old.previous == null) {
+      return false;
+    }
+    snapshot = new Snapshot(old.previous, old.current, old.version + 1);
+    return true;
+  }
+
+  private XGBoostModel loadAndValidate() throws IOException {
+    XGBoostModel model = XGBoostModel.load(modelPath);
+    if (model.getNumFeatures() != XGBoostModel.FEATURE_NAMES.length) {
+      throw new IOException(
+          "Model expects "
+              + model.getNumFeatures()
+              + " features instead of "
+              + XGBoostModel.FEATURE_NAMES.length);
+    }
+    int agree = 0;
+    for (int i = 0; i < goldenRows.length; i++) {
+      float probability = model.predictProbability(goldenRows[i]);
+      if (!(probability >= 0 && probability <= 1)) {
+        throw new IOException("Model returns probability " + probability + " on golden row " + i);
+      }
+      // Golden labels were made with XGBClassifier's rule, whatever threshold is configured
+      if (XGBoostModel.toLabel(probability, XGBoostModel.DEFAULT_THRESHOLD) == goldenLabels[i]) {
+        agree++;
+      }
+    }
+    if (agree < minAgreement * goldenRows.length) {
+      throw new IOException(
+          String.format("Model agrees with only %d of %d golden labels", agree, goldenRows.length));
+    }
+    return model;
+  }
+
+  // Starts a daemon thread that reloads the model whenever its file changes
+  public synchronized void watch() throws IOException {
+    if (watcher != null) {
+      return;
+    }
+    watcher = modelPath.getFileSystem().newWatchService();
+    modelPath
+        .getParent()
+        .register(
+            watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    WatchService service = watcher;
+    Thread thread = new Thread(() -> watchLoop(service), "model-watcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void watchLoop(WatchService service) {
+    try {
+      while (true) {
+        WatchKey key = service.take();
+        boolean changed = drain(key);
+        // Keep collecting events until the writer has been quiet for a while
+        while ((key = service.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          changed |= drain(key);
+        }
+        if (changed) {
+          try {
+            reload();
+            System.err.println("Loaded model version " + getVersion() + " from " + modelPath);
+          } catch (IOException | RuntimeException e) {
+            Metrics.GLOBAL.increment(Metrics.Counter.MODEL_RELOAD_FAILURES);
+            System.err.println("Kept model version " + getVersion() + ": " + e.getMessage());
+          }
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // Registry closed
+    }
+  }
+
+  private boolean drain(WatchKey key) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      Object name = event.context();
+      if (modelPath.getFileName().equals(name) || binaryPath.getFileName().equals(name)) {
+        changed = true;
+      }
+    }
+    key.reset();
+    return changed;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (watcher != null) {
+      watcher.close();
+      watcher = null;
+    }
+  }
+}
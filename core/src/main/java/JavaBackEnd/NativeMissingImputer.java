@@ -0,0 +1,32 @@
+package JavaBackEnd;
+
+/**
+ * Leaves missing features as NaN for the model to handle: every tree sends NaN down the branch its
+ * split's {@code default_left} flag picks, which is what XGBoost learned from missing values during
+ * training. Batches need no pass at all.
+ */
+public final class NativeMissingImputer implements Imputer {
+  public static final NativeMissingImputer INSTANCE = new NativeMissingImputer();
+
+  private NativeMissingImputer() {}
+
+  @Override
+  public int impute(FeatureVector features) {
+    int filled = 0;
+    for (int missing = features.missingMask(); missing != 0; missing &= missing - 1) {
+      features.set(Integer.numberOfTrailingZeros(missing), Double.NaN);
+      filled++;
+    }
+    return filled;
+  }
+
+  @Override
+  public void imputeBatch(double[] packedRows, int rowCount) {
+    // NaN already means missing to every scoring engine
+  }
+
+  @Override
+  public String toString() {
+    return "native";
+  }
+}
@@ -0,0 +1,98 @@
+package JavaBackEnd;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores one large batch on every core of a dedicated {@link ForkJoinPool}.
+ *
+ * <p>The row range is split in half, on {@link FlatEnsemble#BLOCK_ROWS} boundaries, for as long as
+ * other workers look idle ({@link RecursiveAction#getSurplusQueuedTaskCount()}), so busy pools make
+ * few large tasks and idle workers steal the rest. Each task writes only its own slice of the
+ * caller's output array: no locks, no boxing and no merging. {@code ParallelScoringBenchmark}
+ * measures how it scales with the number of threads.
+ */
+public final class ParallelBatchScorer implements AutoCloseable {
+  // Below this many rows a task is not worth splitting
+  private static final int MIN_SPLIT_ROWS = 4 * FlatEnsemble.BLOCK_ROWS;
+  private static final int MAX_SURPLUS_TASKS = 3;
+
+  private final XGBoostModel model;
+  private final ForkJoinPool pool;
+
+  public ParallelBatchScorer(XGBoostModel model, int parallelism) {
+    this.model = model;
+    this.pool =
+        new ForkJoinPool(
+            parallelism,
+            p -> {
+              ForkJoinWorkerThread thread =
+                  ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+              thread.setName("batch-scorer-" + thread.getPoolIndex());
+              thread.setDaemon(true);
+              return thread;
+            },
+            null,
+            false);
+  }
+
+  public int getParallelism() {
+    return pool.getParallelism();
+  }
+
+  // Same contract as XGBoostModel.predictProbabilities(packedRows, rowCount, out)
+  public void predictProbabilities(double[] packedRows, int rowCount, float[] out) {
+    if (rowCount < 0 || out.length < rowCount) {
+      throw new IllegalArgumentException("Output array is shorter than rowCount");
+    }
+    pool.invoke(new Slice(model, packedRows, 0, rowCount, out));
+  }
+
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+  // Tasks only live for one call and are never serialized, though ForkJoinTask is Serializable
+  @SuppressWarnings("serial")
+  private static final class Slice extends RecursiveAction {
+    private final XGBoostModel model;
+    private final double[] packedRows;
+    private final int from;
+    private final int to;
+    private final float[] out;
+    // Chain of the parent's forked tasks, joined newest first
+    private Slice next;
+
+    Slice(XGBoostModel model, double[] packedRows, int from, int to, float[] out) {
+      this.model = model;
+      this.packedRows = packedRows;
+      this.from = from;
+      this.to = to;
+      this.out = out;
+    }
+
+    @Override
+    protected void compute() {
+      int start = from;
+      int end = to;
+      // Hand off the upper half while others are hungry; keep working on the lower half
+      Slice forked = null;
+      while (end - start >= 2 * MIN_SPLIT_ROWS
+          && getSurplusQueuedTaskCount() <= MAX_SURPLUS_TASKS) {
+        int half = (end - start) / 2;
+        int mid = start + half - half % FlatEnsemble.BLOCK_ROWS;
+        Slice upper = new Slice(model, packedRows, mid, end, out);
+        upper.fork();
+        upper.next = forked;
+        forked = upper;
+        end = mid;
+      }
+      model.predictProbabilities(packedRows, start, end, out);
+      for (Slice task = forked; task != null; task = task.next) {
+        task.join();
+      }
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package JavaBackEnd;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of probabilities in front of an {@link XGBoostModel}.
+ *
+ * <p>The key is each feature's {@link FeatureBinning} bin packed 16 bits at a time into two longs,
+ * so equal keys are guaranteed to score identically and a hit is exact, not an approximation.
+ *
+ * <p>Entries live in lock-striped, 4-way set-associative tables of primitive arrays: a key maps to
+ * one set, and inserting into a full set evicts its least recently used way. Lookups allocate
+ * nothing. Entries older than the TTL count as misses; a TTL of 0 or less means entries never
+ * expire and only leave by eviction.
+ */
+public final class PredictionCache implements DiabetesPredictor {
+  private static final int WAYS = 4;
+  private static final int MAX_FEATURES = 8;
+
+  private final XGBoostModel model;
+  private final FeatureBinning binning;
+  private final Stripe[] stripes;
+  private final int stripeMask;
+  private final long ttlNanos;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public PredictionCache(XGBoostModel model, int maxEntries, long ttlMillis) {
+    if (model.getNumFeatures() > MAX_FEATURES) {
+      throw new IllegalArgumentException("Cache keys hold at most " + MAX_FEATURES + " features");
+    }
+    this.model = model;
+    this.binning = FeatureBinning.of(model);
+    for (int f = 0; f < binning.getNumFeatures(); f++) {
+      if (binning.numBins(f) > 1 << 16) {
+        throw new IllegalArgumentException("Too many thresholds on feature " + f);
+      }
+    }
+    this.ttlNanos = ttlMillis * 1_000_000L;
+
+    int stripeCount =
+        Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4));
+    int setsPerStripe = Math.max(1, maxEntries / (stripeCount * WAYS));
+    this.stripes = new Stripe[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new Stripe(setsPerStripe, ttlMillis > 0);
+    }
+    this.stripeMask = stripeCount - 1;
+  }
+
+  @Override
+  public float predictProbability(double[] features) {
+    if (features.length != binning.getNumFeatures()) {
+      throw new IllegalArgumentException(
+          "Expected " + binning.getNumFeatures() + " features but got " + features.length);
+    }
+    long key0 = 0;
+    long key1 = 0;
+    for (int f = 0; f < features.length; f++) {
+      long bin = binning.bin(f, (float) features[f]);
+      if (f < 4) {
+        key0 |= bin << (16 * f);
+      } else {
+        key1 |= bin << (16 * (f - 4));
+      }
+    }
+    long hash = mix(key0 * 0x9E3779B97F4A7C15L ^ key1);
+    Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+    int set = (int) ((hash & 0x7FFFFFFFL) % stripe.sets);
+    long now = System.nanoTime();
+
+    synchronized (stripe) {
+      float cached = stripe.get(set, key0, key1, now - ttlNanos);
+      if (cached == cached) {
+        hits.increment();
+        return cached;
+      }
+    }
+    misses.increment();
+    float probability = model.predictProbability(features);
+    boolean evicted;
+    synchronized (stripe) {
+      evicted = stripe.put(set, key0, key1, probability, now, now - ttlNanos);
+    }
+    if (evicted) {
+      evictions.increment();
+    }
+    return probability;
+  }
+
+  @Override
+  public boolean explain(double[] features, double[] contributions) {
+    return model.explain(features, contributions);
+  }
+
+  @Override
+  public int getModelFingerprint() {
+    return model.getFingerprint();
+  }
+
+  public XGBoostModel getModel() {
+    return model;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  public int getCapacity() {
+    return stripes.length * stripes[0].sets * WAYS;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "PredictionCache[capacity=%d, hits=%d, misses=%d, evictions=%d]",
+        getCapacity(), getHits(), getMisses(), getEvictions());
+  }
+
+  // Murmur3 finalizer
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  // One lock's worth of sets; way w of set s lives at index s * WAYS + w
+  private static final class Stripe {
+    final int sets;
+    final long[] key0;
+    final long[] key1;
+    final float[] value;
+    final long[] writtenAt;
+    final long[] lastUsed;
+    final boolean[] used;
+    // False when the cache has no TTL
+    final boolean expires;
+    long clock;
+
+    Stripe(int sets, boolean expires) {
+      this.sets = sets;
+      this.expires = expires;
+      int size = sets * WAYS;
+      key0 = new long[size];
+      key1 = new long[size];
+      value = new float[size];
+      writtenAt = new long[size];
+      lastUsed = new long[size];
+      used = new boolean[size];
+    }
+
+    // Cached value, or NaN when absent or written before expiredBefore
+    float get(int set, long k0, long k1, long expiredBefore) {
+      int base = set * WAYS;
+      for (int i = base; i < base + WAYS; i++) {
+        if (used[i] && key0[i] == k0 && key1[i] == k1) {
+          if (isExpired(i, expiredBefore)) {
+            used[i] = false;
+            return Float.NaN;
+          }
+          lastUsed[i] = ++clock;
+          return value[i];
+        }
+      }
+      return Float.NaN;
+    }
+
+    // Returns true if a live entry had to be evicted to make room
+    boolean put(int set, long k0, long k1, float v, long now, long expiredBefore) {
+      int base = set * WAYS;
+      int victim = base;
+      for (int i = base; i < base + WAYS; i++) {
+        if (!used[i] || (key0[i] == k0 && key1[i] == k1) || isExpired(i, expiredBefore)) {
+          victim = i;
+          break;
+        }
+        if (lastUsed[i] < lastUsed[victim]) {
+          victim = i;
+        }
+      }
+      boolean evicted =
+          used[victim]
+              && !(key0[victim] == k0 && key1[victim] == k1)
+              && !isExpired(victim, expiredBefore);
+      used[victim] = true;
+      key0[victim] = k0;
+      key1[victim] = k1;
+      value[victim] = v;
+      writtenAt[victim] = now;
+      lastUsed[victim] = ++clock;
+      return evicted;
+    }
+
+    boolean isExpired(int i, long expiredBefore) {
+      return expires && writtenAt[i] - expiredBefore < 0;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package JavaBackEnd;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed once per scored request; its duration is the inference time.
+ *
+ * <p>Costs nothing unless a flight recording is running, e.g. one started with {@code
+ * -XX:StartFlightRecording} or from JDK Mission Control.
+ */
+@Name("JavaBackEnd.Prediction")
+@Label("Diabetes Prediction")
+@Category("Diabetes Assistant")
+@Description("One request through the prediction path")
+final class PredictionEvent extends Event {
+  @Label("Source")
+  String source;
+
+  @Label("Rows")
+  int rows;
+
+  @Label("Label")
+  @Description("Predicted class of the first row, or -1 on failure")
+  int label;
+
+  @Label("Probability")
+  @Description("Probability of the first row, NaN when the predictor only returns a label")
+  float probability;
+
+  @Label("Queue Wait")
+  @Timespan(Timespan.NANOSECONDS)
+  long queueWait;
+}
@@ -0,0 +1,410 @@
+package JavaBackEnd;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Embedded HTTP front end for the in-JVM scorer.
+ *
+ * <ul>
+ *   <li>{@code POST /predict} with one JSON object keyed by {@link FeatureSchema#PREGNANCIES} and
+ *       the {@link MeasurementConfig#name} fields, e.g. {@code {"pregnancies": 2, "glucose": 148,
+ *       ...}}
+ *   <li>{@code POST /predict/batch} with a JSON array of at most {@value #MAX_BATCH_ROWS} such
+ *       objects
+ *   <li>{@code GET /metrics} with {@link Metrics} in Prometheus text format
+ * </ul>
+ *
+ * <p>Each request runs on its own virtual thread. {@link #main} serves a {@link ModelRegistry}, so
+ * a retrained model file is picked up without a restart; connections are kept alive by the JDK
+ * server as long as bodies are fully read. Single rows are looked up in a {@link PredictionCache}
+ * sized by {@code -Ddiabetes.cache.size} (0 disables it) with a TTL of {@code
+ * -Ddiabetes.cache.ttl.seconds} (0 never expires), unless {@code -Ddiabetes.batch.rows} turns on a
+ * {@link MicroBatcher}, which then scores them together with other requests in flight. Every scored
+ * row is appended to the {@link AssessmentLog}, if there is one, without waiting on the disk.
+ * Bodies over {@value #MAX_BODY_BYTES} bytes are refused with 413 before they are parsed.
+ */
+public final class PredictionServer {
+  public static final int DEFAULT_PORT = 8080;
+  public static final int MAX_BATCH_ROWS = 10_000;
+  // Room for a full batch with generous formatting
+  public static final int MAX_BODY_BYTES = 4 << 20;
+  private static final int BACKLOG = 1024;
+
+  private final Supplier<XGBoostModel> models;
+  private final int cacheSize;
+  private final long cacheTtlMillis;
+  private volatile PredictionCache cache;
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final AssessmentLog log;
+  private final MicroBatcher batcher;
+
+  public PredictionServer(XGBoostModel model, InetSocketAddress address) throws IOException {
+    this(() -> model, address, 0, 0, null, null);
+  }
+
+  /**
+   * Each request scores with whatever model {@code models} returns when it starts, e.g. {@link
+   * ModelRegistry#current()}. Single rows go through a cache of {@code cacheSize} entries (0 for
+   * none) that is rebuilt whenever the model changes. A {@code batcher} replaces the cache for
+   * single rows and picks the model when it flushes their batch. Scored rows go to {@code log},
+   * tagged with the model that scored them. Both may be null.
+   */
+  public PredictionServer(
+      Supplier<XGBoostModel> models,
+      InetSocketAddress address,
+      int cacheSize,
+      long cacheTtlMillis,
+      AssessmentLog log,
+      MicroBatcher batcher)
+      throws IOException {
+    this.models = models;
+    this.log = log;
+    this.batcher = batcher;
+    this.cacheSize = cacheSize;
+    this.cacheTtlMillis = cacheTtlMillis;
+    this.server = HttpServer.create(address, BACKLOG);
+    this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    server.setExecutor(executor);
+    server.createContext("/predict", answered(this::handlePredict));
+    server.createContext("/predict/batch", answered(this::handleBatch));
+    server.createContext("/metrics", answered(this::handleMetrics));
+  }
+
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    ModelRegistry registry = ModelRegistry.openDefault();
+    registry.watch();
+    int cacheSize = Integer.getInteger("diabetes.cache.size", 100_000);
+    long cacheTtl = Long.getLong("diabetes.cache.ttl.seconds", 600);
+    AssessmentLog log = AssessmentLog.openDefault().closeOnShutdown();
+    PredictionServer server =
+        new PredictionServer(
+            registry::current,
+            new InetSocketAddress(port),
+            cacheSize,
+            cacheTtl * 1000,
+            log,
+            MicroBatcher.fromProperties(registry::current));
+    Metrics.registerMBean();
+    server.start();
+    System.out.println("Serving predictions on port " + server.getPort());
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  // Leaves the log open; its owner closes it
+  public void stop() {
+    server.stop(0);
+    executor.shutdown();
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  // Anything a handler did not expect still gets a 500, unless the response was already started
+  private static HttpHandler answered(HttpHandler handler) {
+    return exchange -> {
+      try {
+        handler.handle(exchange);
+      } catch (RuntimeException | Error e) {
+        System.err.println("Request to " + exchange.getRequestURI() + " failed: " + e);
+        if (exchange.getResponseCode() == -1) {
+          send(exchange, 500, error("Internal error"));
+        }
+        exchange.close();
+      }
+    };
+  }
+
+  private void handlePredict(HttpExchange exchange) throws IOException {
+    if (!exchange.getRequestURI().getPath().equals("/predict")) {
+      send(exchange, 404, error("Not found"));
+      return;
+    }
+    Object body = readJson(exchange);
+    if (body == null) {
+      return;
+    }
+    FeatureVector vector = new FeatureVector();
+    long validateStart = System.nanoTime();
+    try {
+      parseRow(body, vector);
+    } catch (IllegalArgumentException e) {
+      Metrics.GLOBAL.increment(Metrics.Counter.VALIDATION_FAILURES);
+      send(exchange, 400, error(e.getMessage()));
+      return;
+    }
+    Metrics.GLOBAL.record(Metrics.Timer.VALIDATE, validateStart);
+    double[] features = vector.toArray();
+
+    PredictionEvent event = new PredictionEvent();
+    event.begin();
+    long start = System.nanoTime();
+    float probability;
+    // The batcher picks its model when the batch is flushed, so it reports which one scored the row
+    int fingerprint;
+    try {
+      if (batcher != null) {
+        MicroBatcher.Request request = batcher.submit(features);
+        probability = request.await();
+        fingerprint = request.getModelFingerprint();
+      } else {
+        XGBoostModel model = models.get();
+        PredictionCache cache = cacheFor(model);
+        probability =
+            cache != null ? cache.predictProbability(features) : model.predictProbability(features);
+        fingerprint = model.getFingerprint();
+      }
+    } catch (IOException | RuntimeException e) {
+      Metrics.GLOBAL.increment(Metrics.Counter.PREDICTION_FAILURES);
+      commit(event, 1, Float.NaN);
+      send(exchange, 500, error("Prediction failed"));
+      return;
+    }
+    Metrics.GLOBAL.record(Metrics.Timer.INFERENCE, start);
+    Metrics.GLOBAL.increment(Metrics.Counter.PREDICTIONS);
+    commit(event, 1, probability);
+    if (log != null) {
+      log.append(AssessmentLog.Source.SERVER, fingerprint, features, 0, 0, probability);
+    }
+
+    StringBuilder json = new StringBuilder(64);
+    appendResult(json, probability);
+    send(exchange, 200, json.toString());
+  }
+
+  private void handleBatch(HttpExchange exchange) throws IOException {
+    if (!exchange.getRequestURI().getPath().equals("/predict/batch")) {
+      send(exchange, 404, error("Not found"));
+      return;
+    }
+    Object body = readJson(exchange);
+    if (body == null) {
+      return;
+    }
+    if (!(body instanceof List)) {
+      send(exchange, 400, error("Expected a JSON array of rows"));
+      return;
+    }
+    List<?> rows = (List<?>) body;
+    if (rows.size() > MAX_BATCH_ROWS) {
+      Metrics.GLOBAL.increment(Metrics.Counter.VALIDATION_FAILURES);
+      send(exchange, 413, error("At most " + MAX_BATCH_ROWS + " rows per batch"));
+      return;
+    }
+    double[] packed = new double[rows.size() * FeatureVector.WIDTH];
+    FeatureVector vector = new FeatureVector();
+    long validateStart = System.nanoTime();
+    try {
+      // One vector reused for every row, copied straight into the packed batch
+      for (int r = 0; r < rows.size(); r++) {
+        parseRow(rows.get(r), vector);
+        vector.copyTo(packed, r * FeatureVector.WIDTH);
+      }
+    } catch (IllegalArgumentException e) {
+      Metrics.GLOBAL.increment(Metrics.Counter.VALIDATION_FAILURES);
+      send(exchange, 400, error(e.getMessage()));
+      return;
+    }
+    Metrics.GLOBAL.record(Metrics.Timer.VALIDATE, validateStart);
+
+    PredictionEvent event = new PredictionEvent();
+    event.begin();
+    long start = System.nanoTime();
+    float[] probabilities = new float[rows.size()];
+    XGBoostModel model = models.get();
+    try {
+      model.predictProbabilities(packed, rows.size(), probabilities);
+    } catch (RuntimeException e) {
+      Metrics.GLOBAL.increment(Metrics.Counter.PREDICTION_FAILURES);
+      commit(event, rows.size(), Float.NaN);
+      send(exchange, 500, error("Prediction failed"));
+      return;
+    }
+    Metrics.GLOBAL.record(Metrics.Timer.INFERENCE, start);
+    Metrics.GLOBAL.add(Metrics.Counter.PREDICTIONS, rows.size());
+    commit(event, rows.size(), probabilities.length > 0 ? probabilities[0] : Float.NaN);
+    if (log != null) {
+      for (int r = 0; r < probabilities.length; r++) {
+        log.append(
+            AssessmentLog.Source.SERVER,
+            model.getFingerprint(),
+            packed,
+            r * FeatureVector.WIDTH,
+            0,
+            probabilities[r]);
+      }
+    }
+
+    StringBuilder json = new StringBuilder(16 + rows.size() * 48);
+    json.append("{\"predictions\":[");
+    for (int r = 0; r < probabilities.length; r++) {
+      if (r > 0) {
+        json.append(',');
+      }
+      appendResult(json, probabilities[r]);
+    }
+    json.append("]}");
+    send(exchange, 200, json.toString());
+  }
+
+  // Reads and parses the body, or answers the request itself and returns null
+  private Object readJson(HttpExchange exchange) throws IOException {
+    String length = exchange.getRequestHeaders().getFirst("Content-Length");
+    byte[] bytes;
+    // Never holds more than the budget plus one byte, whether the body is sized or chunked
+    try (InputStream in = exchange.getRequestBody()) {
+      if (length != null && Long.parseLong(length.trim()) > MAX_BODY_BYTES) {
+        bytes = null;
+        discard(in);
+      } else {
+        bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        if (bytes.length > MAX_BODY_BYTES) {
+          discard(in);
+        }
+      }
+    } catch (NumberFormatException e) {
+      send(exchange, 400, error("Bad Content-Length"));
+      return null;
+    }
+    if (bytes == null || bytes.length > MAX_BODY_BYTES) {
+      Metrics.GLOBAL.increment(Metrics.Counter.VALIDATION_FAILURES);
+      send(exchange, 413, error("Request bodies are limited to " + MAX_BODY_BYTES + " bytes"));
+      return null;
+    }
+    String body = new String(bytes, StandardCharsets.UTF_8);
+    if (!exchange.getRequestMethod().equals("POST")) {
+      exchange.getResponseHeaders().set("Allow", "POST");
+      send(exchange, 405, error("Use POST"));
+      return null;
+    }
+    long start = System.nanoTime();
+    try {
+      Object json = Json.parse(body);
+      Metrics.GLOBAL.record(Metrics.Timer.PARSE, start);
+      return json;
+    } catch (IllegalArgumentException e) {
+      Metrics.GLOBAL.increment(Metrics.Counter.VALIDATION_FAILURES);
+      send(exchange, 400, error("Malformed JSON: " + e.getMessage()));
+      return null;
+    }
+  }
+
+  // Skips up to another budget's worth of an oversized body, so a client still sending it can read
+  // the 413 instead of a reset connection; anything longer is cut off when the exchange closes
+  private static void discard(InputStream in) throws IOException {
+    byte[] buffer = new byte[8192];
+    for (long left = MAX_BODY_BYTES; left > 0; ) {
+      int read = in.read(buffer, 0, (int) Math.min(buffer.length, left));
+      if (read < 0) {
+        return;
+      }
+      left -= read;
+    }
+  }
+
+  // Cache keys depend on the model's thresholds, so a new model starts a new cache
+  private PredictionCache cacheFor(XGBoostModel model) {
+    if (cacheSize <= 0) {
+      return null;
+    }
+    PredictionCache current = cache;
+    if (current == null || current.getModel() != model) {
+      current = new PredictionCache(model, cacheSize, cacheTtlMillis);
+      cache = current;
+    }
+    return current;
+  }
+
+  private void handleMetrics(HttpExchange exchange) throws IOException {
+    exchange.getRequestBody().close();
+    if (!exchange.getRequestMethod().equals("GET")) {
+      exchange.getResponseHeaders().set("Allow", "GET");
+      send(exchange, 405, error("Use GET"));
+      return;
+    }
+    StringBuilder text = new StringBuilder(Metrics.GLOBAL.render());
+    PredictionCache cache = this.cache;
+    if (cache != null) {
+      text.append("diabetes_cache_hits_total ").append(cache.getHits()).append('\n');
+      text.append("diabetes_cache_misses_total ").append(cache.getMisses()).append('\n');
+      text.append("diabetes_cache_evictions_total ").append(cache.getEvictions()).append('\n');
+    }
+    byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static void commit(PredictionEvent event, int rows, float probability) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.source = "server";
+      event.rows = rows;
+      event.probability = probability;
+      event.label = probability == probability ? XGBoostModel.toLabel(probability) : -1;
+      event.commit();
+    }
+  }
+
+  // Same feature order and range checks as the desktop assistant
+  private static void parseRow(Object row, FeatureVector features) {
+    if (!(row instanceof Map)) {
+      throw new IllegalArgumentException("Each row must be a JSON object");
+    }
+    Map<?, ?> fields = (Map<?, ?>) row;
+    features.set(FeatureVector.PREGNANCIES, number(fields, FeatureSchema.PREGNANCIES));
+    for (MeasurementConfig config : FeatureSchema.MEASUREMENTS) {
+      features.set(config, number(fields, config.name));
+    }
+    FeatureSchema.validate(features);
+  }
+
+  private static double number(Map<?, ?> fields, String name) {
+    Object value = fields.get(name);
+    if (!(value instanceof BigDecimal)) {
+      throw new IllegalArgumentException("Missing or non-numeric field '" + name + "'");
+    }
+    return ((BigDecimal) value).doubleValue();
+  }
+
+  private static void appendResult(StringBuilder json, float probability) {
+    json.append("{\"prediction\":")
+        .append(XGBoostModel.toLabel(probability))
+        .append(",\"probability\":")
+        .append(probability)
+        .append('}');
+  }
+
+  private static String error(String message) {
+    return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+  }
+
+  private static void send(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
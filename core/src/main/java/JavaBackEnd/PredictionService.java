@@ -0,0 +1,195 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs predictions off the caller's thread on a bounded pool.
+ *
+ * <p>The predictor is created on a pool thread, by {@link #preload} or else lazily on the first
+ * request, so neither model loading nor scoring ever blocks the Swing Event Dispatch Thread.
+ * Cancelling a returned future interrupts the task if it is already running; a full queue fails the
+ * future immediately instead of piling up work. Queue wait and inference time are recorded in
+ * {@link Metrics#GLOBAL}.
+ */
+public final class PredictionService implements AutoCloseable {
+  public enum Stage {
+    QUEUED,
+    LOADING_MODEL,
+    SCORING,
+    EXPLAINING
+  }
+
+  /**
+   * A submitted row's probability. Once it has completed normally it also tells which model scored
+   * it, which after a reload need not be the one loaded now.
+   */
+  public static final class Prediction extends CompletableFuture<Float> {
+    // Written before the future completes
+    private int modelFingerprint;
+
+    // See DiabetesPredictor.getModelFingerprint; 0 until scored
+    public int getModelFingerprint() {
+      return modelFingerprint;
+    }
+  }
+
+  private final Callable<? extends DiabetesPredictor> loader;
+  private final ExecutorService executor;
+  private volatile DiabetesPredictor predictor;
+
+  public PredictionService(
+      Callable<? extends DiabetesPredictor> loader, int threads, int queueCapacity) {
+    this.loader = loader;
+    AtomicInteger count = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+              Thread thread = new Thread(r, "prediction-" + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  // Completes with the probability of diabetes; progress is called from the pool thread as the
+  // request moves through each stage
+  public Prediction submit(double[] features, Consumer<Stage> progress) {
+    return submit(features, null, progress);
+  }
+
+  /**
+   * Also fills {@code contributions} (one slot per feature plus the bias, see {@link
+   * TreeExplainer}) before the future completes, or with NaN if the predictor can't explain itself.
+   * An explanation that fails leaves the prediction intact.
+   */
+  public Prediction submit(double[] features, double[] contributions, Consumer<Stage> progress) {
+    Prediction result = new Prediction();
+    long submitted = System.nanoTime();
+    FutureTask<Void> task =
+        new FutureTask<>(
+            () -> {
+              Metrics.GLOBAL.record(Metrics.Timer.QUEUE_WAIT, submitted);
+              PredictionEvent event = new PredictionEvent();
+              event.source = "service";
+              event.rows = 1;
+              event.label = -1;
+              event.probability = Float.NaN;
+              event.queueWait = System.nanoTime() - submitted;
+              try {
+                // Scored and explained by one model, even across a reload
+                DiabetesPredictor current = predictor(progress).pinned();
+                progress.accept(Stage.SCORING);
+                event.begin();
+                long start = System.nanoTime();
+                float probability = current.predictProbability(features);
+                Metrics.GLOBAL.record(Metrics.Timer.INFERENCE, start);
+                Metrics.GLOBAL.increment(Metrics.Counter.PREDICTIONS);
+                event.probability = probability;
+                event.label = XGBoostModel.toLabel(probability);
+                result.modelFingerprint = current.getModelFingerprint();
+                if (contributions != null) {
+                  progress.accept(Stage.EXPLAINING);
+                  explain(current, features, contributions);
+                }
+                result.complete(probability);
+              } catch (Throwable t) {
+                Metrics.GLOBAL.increment(Metrics.Counter.PREDICTION_FAILURES);
+                result.completeExceptionally(t);
+              } finally {
+                event.commit();
+              }
+              return null;
+            });
+    result.whenComplete(
+        (probability, error) -> {
+          if (result.isCancelled()) {
+            task.cancel(true);
+          }
+        });
+
+    progress.accept(Stage.QUEUED);
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  /**
+   * Loads the predictor on the pool now instead of on the first request, then scores {@code
+   * features} once so the scoring path is loaded and compiled too. The warm-up score is not counted
+   * in {@link Metrics}. If loading fails, the first request tries again and reports the error.
+   */
+  public CompletableFuture<Void> preload(double[] features) {
+    CompletableFuture<Void> result = new CompletableFuture<>();
+    try {
+      executor.execute(
+          () -> {
+            try {
+              predictor(stage -> {}).predictProbability(features);
+              result.complete(null);
+            } catch (Throwable t) {
+              result.completeExceptionally(t);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  private static void explain(
+      DiabetesPredictor predictor, double[] features, double[] contributions) {
+    try {
+      if (predictor.explain(features, contributions)) {
+        return;
+      }
+    } catch (IOException | RuntimeException e) {
+      System.err.println("Explanation failed: " + e);
+    }
+    Arrays.fill(contributions, Double.NaN);
+  }
+
+  private DiabetesPredictor predictor(Consumer<Stage> progress) throws Exception {
+    DiabetesPredictor current = predictor;
+    if (current == null) {
+      synchronized (this) {
+        current = predictor;
+        if (current == null) {
+          progress.accept(Stage.LOADING_MODEL);
+          current = loader.call();
+          predictor = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    if (predictor instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) predictor).close();
+      } catch (Exception e) {
+        // Nothing left to clean up if the predictor fails to close
+      }
+    }
+  }
+}
@@ -0,0 +1,315 @@
+package JavaBackEnd;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of long-lived {@code predict_diabetes.py --serve} processes for deployments that must use
+ * the real XGBoost runtime.
+ *
+ * <p>Workers are started on demand up to {@code maxWorkers}, answer one request per line over
+ * stdin/stdout with the probability from {@code predict_proba}, and are replaced when they die or
+ * miss the request timeout, straight away if callers are waiting for one. Each worker's stderr is
+ * drained on its own thread so it can never block the pipe, and the last lines are attached to
+ * failures.
+ */
+public final class PythonWorkerPool implements DiabetesPredictor, AutoCloseable {
+  public static final Path DEFAULT_SCRIPT = Paths.get("Model", "predict_diabetes.py");
+  private static final long STARTUP_TIMEOUT_MILLIS = 60_000;
+  private static final int STDERR_LINES = 20;
+  private static final String EOF = new String("EOF");
+
+  private final String python;
+  private final Path script;
+  private final int maxWorkers;
+  private final long timeoutMillis;
+  private final BlockingQueue<Worker> idle;
+  private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
+  private int launched;
+  // Callers blocked on idle
+  private final AtomicInteger waiting = new AtomicInteger();
+  private volatile boolean closed;
+
+  public PythonWorkerPool(String python, Path script, int maxWorkers, long timeoutMillis) {
+    if (maxWorkers < 1) {
+      throw new IllegalArgumentException("maxWorkers must be at least 1");
+    }
+    this.python = python;
+    this.script = script;
+    this.maxWorkers = maxWorkers;
+    this.timeoutMillis = timeoutMillis;
+    this.idle = new ArrayBlockingQueue<>(maxWorkers);
+  }
+
+  @Override
+  public float predictProbability(double[] features) throws IOException {
+    if (features.length != XGBoostModel.FEATURE_NAMES.length) {
+      throw new IllegalArgumentException(
+          "Expected " + XGBoostModel.FEATURE_NAMES.length + " features but got " + features.length);
+    }
+    StringBuilder request = new StringBuilder();
+    for (int i = 0; i < features.length; i++) {
+      if (i > 0) {
+        request.append(',');
+      }
+      request.append(features[i]);
+    }
+
+    Worker worker = acquire();
+    boolean healthy = false;
+    try {
+      String reply = worker.call(request.toString(), timeoutMillis);
+      healthy = true;
+      if (reply.startsWith("ERROR")) {
+        throw new IOException("Python worker rejected the request: " + reply.substring(5).trim());
+      }
+      try {
+        float probability = Float.parseFloat(reply.trim());
+        if (!(probability >= 0 && probability <= 1)) {
+          throw new NumberFormatException();
+        }
+        return probability;
+      } catch (NumberFormatException e) {
+        healthy = false;
+        throw new IOException("Unexpected reply from Python worker: " + reply);
+      }
+    } catch (IOException e) {
+      Metrics.GLOBAL.increment(Metrics.Counter.PYTHON_ERRORS);
+      throw e;
+    } finally {
+      release(worker, healthy);
+    }
+  }
+
+  private Worker acquire() throws IOException {
+    if (closed) {
+      throw new IOException("Worker pool is closed");
+    }
+    Worker worker = idle.poll();
+    if (worker == null) {
+      boolean launch;
+      // Registered before looking for a free slot, so a slot that discard() frees either shows up
+      // here or gets a replacement worker from it
+      waiting.incrementAndGet();
+      try {
+        launch = reserveLaunch();
+        if (!launch) {
+          worker = idle.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting for a Python worker", e);
+      } finally {
+        waiting.decrementAndGet();
+      }
+      if (launch) {
+        return start();
+      }
+    }
+    if (worker == null) {
+      throw new IOException("No Python worker became free within " + timeoutMillis + " ms");
+    }
+    if (!worker.process.isAlive()) {
+      // Died while idle: replace it in place
+      discard(worker);
+      replaceForWaiters();
+      return acquire();
+    }
+    return worker;
+  }
+
+  private void release(Worker worker, boolean healthy) {
+    if (healthy && !closed && worker.process.isAlive()) {
+      idle.offer(worker);
+    } else {
+      discard(worker);
+      replaceForWaiters();
+    }
+  }
+
+  // Callers blocked in acquire() only wake for an idle worker, so a slot freed by a lost worker is
+  // filled for them in the background. Not done for workers that fail to start, which would retry
+  // a broken setup in a loop
+  private void replaceForWaiters() {
+    if (closed || waiting.get() == 0 || !reserveLaunch()) {
+      return;
+    }
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                release(start(), true);
+              } catch (IOException e) {
+                // start() gave the slot back; the waiters time out with their own error
+              }
+            },
+            "python-worker-start");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private synchronized boolean reserveLaunch() {
+    if (launched >= maxWorkers) {
+      return false;
+    }
+    launched++;
+    return true;
+  }
+
+  private synchronized void unreserveLaunch() {
+    launched--;
+  }
+
+  private void discard(Worker worker) {
+    if (workers.remove(worker)) {
+      if (!closed) {
+        Metrics.GLOBAL.increment(Metrics.Counter.PYTHON_WORKERS_DISCARDED);
+      }
+      worker.process.destroyForcibly();
+      unreserveLaunch();
+    }
+  }
+
+  // Called with a launch slot already reserved; gives the slot back on failure
+  private Worker start() throws IOException {
+    Process process;
+    try {
+      process = new ProcessBuilder(python, script.toString(), "--serve").start();
+    } catch (IOException e) {
+      unreserveLaunch();
+      throw e;
+    }
+    Worker worker = new Worker(process);
+    workers.add(worker);
+    try {
+      String ready = worker.read(STARTUP_TIMEOUT_MILLIS);
+      if (!"READY".equals(ready)) {
+        throw worker.failure("Python worker failed to start, got '" + ready + "'");
+      }
+    } catch (IOException e) {
+      discard(worker);
+      throw e;
+    }
+    return worker;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    for (Worker worker : workers) {
+      discard(worker);
+    }
+    idle.clear();
+  }
+
+  private static final class Worker {
+    final Process process;
+    final BufferedWriter stdin;
+    final BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+    final ArrayDeque<String> stderrTail = new ArrayDeque<>();
+    final Thread stderrPump;
+
+    Worker(Process process) {
+      this.process = process;
+      this.stdin =
+          new BufferedWriter(
+              new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+      startDaemon("python-stdout", () -> pumpStdout(process.getInputStream()));
+      this.stderrPump = startDaemon("python-stderr", () -> pumpStderr(process.getErrorStream()));
+    }
+
+    String call(String request, long timeoutMillis) throws IOException {
+      try {
+        stdin.write(request);
+        stdin.newLine();
+        stdin.flush();
+      } catch (IOException e) {
+        throw failure("Could not send the request to the Python worker (" + e.getMessage() + ")");
+      }
+      return read(timeoutMillis);
+    }
+
+    String read(long timeoutMillis) throws IOException {
+      String line;
+      try {
+        line = replies.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting for the Python worker", e);
+      }
+      if (line == null) {
+        throw failure("Python worker timed out after " + timeoutMillis + " ms");
+      }
+      if (line == EOF) {
+        try {
+          // Let the last stderr lines (usually the traceback) arrive before reporting
+          stderrPump.join(1000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        throw failure("Python worker exited");
+      }
+      return line;
+    }
+
+    IOException failure(String message) {
+      String stderr;
+      synchronized (stderrTail) {
+        stderr = String.join("\n", stderrTail);
+      }
+      return new IOException(stderr.isEmpty() ? message : message + ":\n" + stderr);
+    }
+
+    private void pumpStdout(InputStream in) {
+      try (BufferedReader reader =
+          new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          replies.add(line);
+        }
+      } catch (IOException e) {
+        // Stream closed because the process was destroyed
+      }
+      replies.add(EOF);
+    }
+
+    private void pumpStderr(InputStream in) {
+      try (BufferedReader reader =
+          new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          synchronized (stderrTail) {
+            if (stderrTail.size() == STDERR_LINES) {
+              stderrTail.removeFirst();
+            }
+            stderrTail.addLast(line);
+          }
+        }
+      } catch (IOException e) {
+        // Stream closed because the process was destroyed
+      }
+    }
+
+    private static Thread startDaemon(String name, Runnable task) {
+      Thread thread = new Thread(task, name);
+      thread.setDaemon(true);
+      thread.start();
+      return thread;
+    }
+  }
+}
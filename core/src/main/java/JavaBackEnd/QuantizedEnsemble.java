@@ -0,0 +1,179 @@
+package JavaBackEnd;
+
+import java.util.Arrays;
+
+/**
+ * Batch scoring on integer bin codes instead of float thresholds.
+ *
+ * <p>Every split threshold is replaced by its index in the feature's {@link FeatureBinning} table,
+ * so each node of the {@link FlatEnsemble} layout fits one {@code long}: the left child in the high
+ * word and, in the low word, the split's bin limit (uint16), feature (uint8) and missing-value
+ * direction. Walking the trees reads only that array, 8 bytes a node, where the flat engine reads
+ * 13 from four; leaf outputs stay in the flat engine's value array and are read once per tree.
+ *
+ * <p>Each block of {@link FlatEnsemble#BLOCK_ROWS} rows is binned once, one binary search per
+ * feature, and the trees then compare integers only. A value goes left of threshold {@code t} iff
+ * no more thresholds than {@code t}'s index lie at or below it, so every split goes the same way as
+ * in the float model and margins, summed in tree order, match it bit for bit.
+ *
+ * <p>A leaf steps to itself, so every row takes exactly the tree's depth in steps. The block walks
+ * a tree one level at a time with no data-dependent branches, and the rows' steps overlap.
+ *
+ * <p>Used for packed batches with {@code -Ddiabetes.engine=quantized}.
+ */
+public final class QuantizedEnsemble implements BatchMarginScorer {
+  // Bin codes are chars: NaN is 0 and a value is 1 + its FeatureBinning bin
+  private static final int MAX_THRESHOLDS = Character.MAX_VALUE - 1;
+  private static final int MAX_FEATURES = 1 << 8;
+  // Low word of a leaf: no code is above this limit, so the step adds 0 to the leaf's own index
+  private static final long LEAF = Character.MAX_VALUE;
+
+  private final FlatEnsemble flat;
+  // Each feature's thresholds padded with NaN to a power of two less one, see code()
+  private final float[][] tables;
+  private final int[] roots;
+  // Steps from each root to its deepest leaf
+  private final int[] depths;
+  private final long[] nodes;
+  private final int numFeatures;
+  private final float baseMargin;
+
+  private QuantizedEnsemble(FlatEnsemble flat, float[][] tables, int[] depths, long[] nodes) {
+    this.flat = flat;
+    this.tables = tables;
+    this.roots = flat.roots;
+    this.depths = depths;
+    this.nodes = nodes;
+    this.numFeatures = flat.numFeatures;
+    this.baseMargin = flat.baseMargin;
+  }
+
+  public static QuantizedEnsemble compile(FlatEnsemble flat) {
+    if (flat.numFeatures > MAX_FEATURES) {
+      throw new IllegalArgumentException(
+          "The quantized engine handles at most " + MAX_FEATURES + " features");
+    }
+    FeatureBinning binning = FeatureBinning.of(flat);
+    float[][] tables = new float[flat.numFeatures][];
+    for (int f = 0; f < flat.numFeatures; f++) {
+      float[] thresholds = binning.thresholds(f);
+      if (thresholds.length > MAX_THRESHOLDS) {
+        throw new IllegalArgumentException(
+            "Feature " + f + " has more than " + MAX_THRESHOLDS + " thresholds");
+      }
+      tables[f] = Arrays.copyOf(thresholds, Integer.highestOneBit(thresholds.length * 2 + 1) - 1);
+      Arrays.fill(tables[f], thresholds.length, tables[f].length, Float.NaN);
+    }
+
+    long[] nodes = new long[flat.getNumNodes()];
+    // Breadth-first order puts every parent before its children
+    int[] level = new int[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      int f = flat.feature[i];
+      if (f < 0) {
+        nodes[i] = (long) i << 32 | LEAF;
+        continue;
+      }
+      level[flat.left[i]] = level[i] + 1;
+      level[flat.left[i] + 1] = level[i] + 1;
+      // Thresholds below this one; its bin counts itself too
+      int index = binning.bin(f, flat.value[i]) - 1;
+      // Codes go left iff at most index + 1, unsigned. When missing values go right, codes and
+      // limit drop by one so that NaN's 0 becomes the largest unsigned int
+      int shift = flat.defaultLeft[i] ? 0 : 1;
+      int limit = index + 1 - shift;
+      nodes[i] = (long) flat.left[i] << 32 | shift << 24 | f << 16 | limit;
+    }
+    int[] depths = new int[flat.roots.length];
+    for (int t = 0; t < depths.length; t++) {
+      int end = t + 1 < depths.length ? flat.roots[t + 1] : nodes.length;
+      for (int i = flat.roots[t]; i < end; i++) {
+        depths[t] = Math.max(depths[t], level[i]);
+      }
+    }
+    return new QuantizedEnsemble(flat, tables, depths, nodes);
+  }
+
+  public int getNumNodes() {
+    return nodes.length;
+  }
+
+  // What traversal reads: node records, roots, depths and threshold tables
+  public long getModelBytes() {
+    long bytes = 8L * nodes.length + 8L * roots.length;
+    for (float[] table : tables) {
+      bytes += 4L * table.length;
+    }
+    return bytes;
+  }
+
+  // One row, for checking against the float engines; batches are the fast path
+  public float predictMargin(double[] features) {
+    if (features.length != numFeatures) {
+      throw new IllegalArgumentException(
+          "Expected " + numFeatures + " features but got " + features.length);
+    }
+    char[] codes = new char[numFeatures];
+    for (int f = 0; f < numFeatures; f++) {
+      codes[f] = code(f, (float) features[f]);
+    }
+    float margin = baseMargin;
+    for (int t = 0; t < roots.length; t++) {
+      int node = roots[t];
+      for (int step = depths[t]; step > 0; step--) {
+        node = step(node, codes, 0);
+      }
+      margin += flat.value[node];
+    }
+    return margin;
+  }
+
+  @Override
+  public void predictMargins(double[] packedRows, int fromRow, int toRow, float[] out) {
+    flat.checkRange(packedRows, fromRow, toRow, out);
+    char[] codes = new char[FlatEnsemble.BLOCK_ROWS * numFeatures];
+    // Each row's current node in the tree being walked
+    int[] at = new int[FlatEnsemble.BLOCK_ROWS];
+    Arrays.fill(out, fromRow, toRow, baseMargin);
+    for (int start = fromRow; start < toRow; start += FlatEnsemble.BLOCK_ROWS) {
+      int rows = Math.min(FlatEnsemble.BLOCK_ROWS, toRow - start);
+      for (int r = 0; r < rows; r++) {
+        int offset = (start + r) * numFeatures;
+        for (int f = 0; f < numFeatures; f++) {
+          codes[r * numFeatures + f] = code(f, (float) packedRows[offset + f]);
+        }
+      }
+      for (int t = 0; t < roots.length; t++) {
+        Arrays.fill(at, 0, rows, roots[t]);
+        for (int step = depths[t]; step > 0; step--) {
+          for (int r = 0; r < rows; r++) {
+            at[r] = step(at[r], codes, r * numFeatures);
+          }
+        }
+        for (int r = 0; r < rows; r++) {
+          out[start + r] += flat.value[at[r]];
+        }
+      }
+    }
+  }
+
+  // FeatureBinning.bin, plus one, as a search of fixed length: each step adds its width when the
+  // entry before is at or below the value, which the JIT can do without a branch. NaN padding never
+  // is, so it is not counted, and a NaN value counts nothing and gets 0
+  private char code(int feature, float value) {
+    float[] table = tables[feature];
+    int count = 0;
+    for (int step = (table.length + 1) >>> 1; step > 0; step >>>= 1) {
+      count += table[count + step - 1] <= value ? step : 0;
+    }
+    return (char) (value != value ? 0 : count + 1);
+  }
+
+  // The node one level down for the row whose codes start at codes[base]; a leaf stays put
+  private int step(int node, char[] codes, int base) {
+    long record = nodes[node];
+    long code =
+        codes[base + ((int) record >>> 16 & 0xff)] - ((int) record >>> 24 & 1) & 0xffffffffL;
+    return (int) (record >>> 32) + (int) ((record & 0xffff) - code >>> 63);
+  }
+}
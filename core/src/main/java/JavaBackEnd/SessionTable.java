@@ -0,0 +1,249 @@
+package JavaBackEnd;
+
+import java.security.SecureRandom;
+import java.util.function.Function;
+
+/**
+ * Live {@link AssessmentSession}s by id, for front ends that serve many people at once, e.g. a
+ * kiosk fleet or a web page.
+ *
+ * <p>There is no object per session: each lives in one slot of lock-striped, open-addressed tables
+ * of primitive arrays (an id, a last-used time, the session's packed state and its eight feature
+ * values), about {@value #BYTES_PER_SLOT} bytes a slot. {@link #update} decodes the slot into a
+ * session, runs the caller's step under the stripe's lock and writes the result back, so concurrent
+ * requests for one session never lose an answer.
+ *
+ * <p>A session expires when unused for the TTL. Expired sessions are dropped when looked up, when a
+ * stripe needs room and by {@link #removeExpired}. Ids come from {@link SecureRandom}, so they can
+ * be handed to browsers. {@code SessionTableBenchmark} measures create and update times and,
+ * through its allocation figures, a bound on the footprint per session.
+ */
+public final class SessionTable {
+  static final int BYTES_PER_SLOT = 8 + 4 + 4 + 8 * 8;
+  // Stripes fill to at most 3/4 of their slots, which keeps linear probes short
+  private static final int LOAD_NUMERATOR = 3;
+  private static final int LOAD_DENOMINATOR = 4;
+
+  private final Stripe[] stripes;
+  private final int stripeMask;
+  private final int ttlSeconds;
+  private final long epochNanos = System.nanoTime();
+  private final SecureRandom random = new SecureRandom();
+
+  /**
+   * Room for at least {@code maxSessions} live sessions; stripes fill independently, so somewhat
+   * more may fit. Sessions expire after {@code ttlMillis} without an update, rounded up to a
+   * second.
+   */
+  public SessionTable(int maxSessions, long ttlMillis) {
+    if (maxSessions < 1 || ttlMillis < 1) {
+      throw new IllegalArgumentException("Need room for a session and a positive TTL");
+    }
+    this.ttlSeconds = Math.toIntExact((ttlMillis + 999) / 1000);
+    int stripeCount =
+        Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4));
+    int perStripe = (maxSessions + stripeCount - 1) / stripeCount;
+    int slots = Integer.highestOneBit(Math.max(2, perStripe * LOAD_DENOMINATOR / LOAD_NUMERATOR));
+    if (slots * LOAD_NUMERATOR / LOAD_DENOMINATOR < perStripe) {
+      slots <<= 1;
+    }
+    this.stripes = new Stripe[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new Stripe(slots);
+    }
+    this.stripeMask = stripeCount - 1;
+  }
+
+  // A new session at the welcome step; throws IllegalStateException when its stripe is full of
+  // live sessions
+  public long create() {
+    while (true) {
+      long id = random.nextLong();
+      if (id == 0) {
+        continue;
+      }
+      Stripe stripe = stripeFor(id);
+      int now = now();
+      synchronized (stripe) {
+        if (stripe.find(id, now - ttlSeconds) >= 0) {
+          continue;
+        }
+        if (stripe.size >= stripe.limit && stripe.removeExpired(now - ttlSeconds) == 0) {
+          throw new IllegalStateException(
+              "All " + getCapacity() + " session slots are in use, try again later");
+        }
+        stripe.insert(id, now);
+        return id;
+      }
+    }
+  }
+
+  /**
+   * Runs {@code action} on the session, then stores the session as the action left it, unless the
+   * action threw. Returns what the action returned, or null if the session is unknown or expired.
+   *
+   * <p>The action runs under a lock shared with other sessions, so it should only drive the
+   * session, not wait for anything or touch this table.
+   */
+  public <T> T update(long id, Function<AssessmentSession, T> action) {
+    Stripe stripe = stripeFor(id);
+    int now = now();
+    AssessmentSession session = new AssessmentSession();
+    synchronized (stripe) {
+      int slot = stripe.find(id, now - ttlSeconds);
+      if (slot < 0) {
+        return null;
+      }
+      int base = slot * FeatureVector.WIDTH;
+      session.decode(stripe.state[slot], stripe.values, base);
+      T result = action.apply(session);
+      stripe.state[slot] = session.encode(stripe.values, base);
+      stripe.touched[slot] = now;
+      return result;
+    }
+  }
+
+  public boolean remove(long id) {
+    Stripe stripe = stripeFor(id);
+    synchronized (stripe) {
+      int slot = stripe.find(id, now() - ttlSeconds);
+      if (slot < 0) {
+        return false;
+      }
+      stripe.delete(slot);
+      return true;
+    }
+  }
+
+  // Sweeps every stripe; returns how many sessions had expired
+  public int removeExpired() {
+    int expiredBefore = now() - ttlSeconds;
+    int removed = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        removed += stripe.removeExpired(expiredBefore);
+      }
+    }
+    return removed;
+  }
+
+  // Live and not yet swept
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.size;
+      }
+    }
+    return size;
+  }
+
+  public int getCapacity() {
+    return stripes.length * stripes[0].limit;
+  }
+
+  private Stripe stripeFor(long id) {
+    return stripes[(int) (mix(id) >>> 32) & stripeMask];
+  }
+
+  private int now() {
+    return (int) ((System.nanoTime() - epochNanos) / 1_000_000_000L);
+  }
+
+  // Murmur3 finalizer
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  // One lock's worth of sessions, linearly probed; id 0 marks a free slot
+  private static final class Stripe {
+    final int mask;
+    final int limit;
+    final long[] ids;
+    final int[] touched;
+    final int[] state;
+    // FeatureVector.WIDTH values per slot
+    final double[] values;
+    int size;
+
+    Stripe(int slots) {
+      mask = slots - 1;
+      limit = slots * LOAD_NUMERATOR / LOAD_DENOMINATOR;
+      ids = new long[slots];
+      touched = new int[slots];
+      state = new int[slots];
+      values = new double[slots * FeatureVector.WIDTH];
+    }
+
+    int home(long id) {
+      return (int) mix(id) & mask;
+    }
+
+    // Slot of a live session, or -1; an expired one is deleted on the way
+    int find(long id, int expiredBefore) {
+      for (int i = home(id); ids[i] != 0; i = (i + 1) & mask) {
+        if (ids[i] == id) {
+          if (touched[i] - expiredBefore < 0) {
+            delete(i);
+            return -1;
+          }
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    void insert(long id, int now) {
+      int i = home(id);
+      while (ids[i] != 0) {
+        i = (i + 1) & mask;
+      }
+      ids[i] = id;
+      touched[i] = now;
+      // A fresh AssessmentSession: at the welcome, nothing answered
+      state[i] = new AssessmentSession().encode(values, i * FeatureVector.WIDTH);
+      size++;
+    }
+
+    // Backward-shift deletion: later entries of the probe run move up, so no tombstones pile up
+    void delete(int slot) {
+      int hole = slot;
+      for (int i = (slot + 1) & mask; ids[i] != 0; i = (i + 1) & mask) {
+        int home = home(ids[i]);
+        if (((i - home) & mask) >= ((i - hole) & mask)) {
+          ids[hole] = ids[i];
+          touched[hole] = touched[i];
+          state[hole] = state[i];
+          System.arraycopy(
+              values,
+              i * FeatureVector.WIDTH,
+              values,
+              hole * FeatureVector.WIDTH,
+              FeatureVector.WIDTH);
+          hole = i;
+        }
+      }
+      ids[hole] = 0;
+      size--;
+    }
+
+    int removeExpired(int expiredBefore) {
+      int removed = 0;
+      for (int i = 0; i <= mask; ) {
+        if (ids[i] != 0 && touched[i] - expiredBefore < 0) {
+          // Look at slot i again: delete may have moved another entry into it
+          delete(i);
+          removed++;
+        } else {
+          i++;
+        }
+      }
+      return removed;
+    }
+  }
+}
@@ -0,0 +1,292 @@
+package JavaBackEnd;
+
+/**
+ * Explains a prediction as per-feature contributions to its margin (log-odds), like XGBoost's
+ * {@code pred_contribs}.
+ *
+ * <ul>
+ *   <li>{@link #shap} gives exact TreeSHAP values (Lundberg et al., "Consistent Individualized
+ *       Feature Attribution for Tree Ensembles", Algorithm 2), weighting unseen branches by each
+ *       node's cover ({@code sum_hessian})
+ *   <li>{@link #saabas} is the cheap approximation for bulk use: walk the decision path once and
+ *       credit each split's feature with the change in the node's expected value
+ * </ul>
+ *
+ * <p>Both write the feature contributions to {@code out[0 .. numFeatures)} and the bias, the
+ * expected margin over the training data, to {@code out[numFeatures]}; together they add up to
+ * {@link XGBoostModel#predictMargin}. Node expectations and the TreeSHAP path buffer are allocated
+ * once in the constructor, so explaining allocates nothing, and an instance must not be shared
+ * between threads; {@link #copy} gives another thread its own buffers over the same node
+ * expectations.
+ */
+public final class TreeExplainer {
+  private final XGBoostModel model;
+  private final int numFeatures;
+  private final XGBoostModel.Tree[] trees;
+  // Cover-weighted mean leaf value below each node, per tree
+  private final double[][] nodeMeans;
+  private final double bias;
+  // Features rounded to float, as the trees compare them
+  private final float[] row;
+
+  // TreeSHAP path elements; each recursion level works on its own slice
+  private final int[] pathFeature;
+  private final double[] pathZero;
+  private final double[] pathOne;
+  private final double[] pathWeight;
+  // reciprocal[k] = 1 / k, so the path updates multiply instead of divide
+  private final double[] reciprocal;
+
+  public TreeExplainer(XGBoostModel model) {
+    this.model = model;
+    this.numFeatures = model.getNumFeatures();
+    this.trees = new XGBoostModel.Tree[model.getNumTrees()];
+    this.nodeMeans = new double[trees.length][];
+    double expected = model.getBaseMargin();
+    int maxDepth = 0;
+    for (int t = 0; t < trees.length; t++) {
+      trees[t] = model.getTree(t);
+      nodeMeans[t] = new double[trees[t].numNodes()];
+      expected += fillMeans(trees[t], nodeMeans[t], 0);
+      maxDepth = Math.max(maxDepth, depth(trees[t], 0));
+    }
+    this.bias = expected;
+    this.row = new float[numFeatures];
+
+    // Level d copies at most d + 2 elements past its parent's slice
+    int levels = maxDepth + 2;
+    int pathLength = levels * (levels + 1) / 2;
+    this.pathFeature = new int[pathLength];
+    this.pathZero = new double[pathLength];
+    this.pathOne = new double[pathLength];
+    this.pathWeight = new double[pathLength];
+    this.reciprocal = new double[levels + 1];
+    for (int k = 1; k < reciprocal.length; k++) {
+      reciprocal[k] = 1.0 / k;
+    }
+  }
+
+  private TreeExplainer(TreeExplainer other) {
+    this.model = other.model;
+    this.numFeatures = other.numFeatures;
+    this.trees = other.trees;
+    this.nodeMeans = other.nodeMeans;
+    this.bias = other.bias;
+    this.reciprocal = other.reciprocal;
+    this.row = new float[numFeatures];
+    int pathLength = other.pathFeature.length;
+    this.pathFeature = new int[pathLength];
+    this.pathZero = new double[pathLength];
+    this.pathOne = new double[pathLength];
+    this.pathWeight = new double[pathLength];
+  }
+
+  // Shares this explainer's node expectations, with buffers of its own
+  public TreeExplainer copy() {
+    return new TreeExplainer(this);
+  }
+
+  private static double fillMeans(XGBoostModel.Tree tree, double[] means, int node) {
+    if (tree.isLeaf(node)) {
+      means[node] = tree.leafValue(node);
+    } else {
+      int left = tree.leftChildren[node];
+      int right = tree.rightChildren[node];
+      double leftMean = fillMeans(tree, means, left);
+      double rightMean = fillMeans(tree, means, right);
+      means[node] =
+          (leftMean * tree.sumHessian[left] + rightMean * tree.sumHessian[right])
+              / tree.sumHessian[node];
+    }
+    return means[node];
+  }
+
+  private static int depth(XGBoostModel.Tree tree, int node) {
+    return tree.isLeaf(node)
+        ? 0
+        : 1 + Math.max(depth(tree, tree.leftChildren[node]), depth(tree, tree.rightChildren[node]));
+  }
+
+  public XGBoostModel getModel() {
+    return model;
+  }
+
+  // Expected margin before any feature is known, i.e. out[numFeatures]
+  public double getBias() {
+    return bias;
+  }
+
+  // Exact TreeSHAP contributions of one row; out needs numFeatures + 1 slots
+  public void shap(double[] features, double[] out) {
+    prepare(features, out);
+    for (XGBoostModel.Tree tree : trees) {
+      treeShap(tree, 0, 0, 0, 1, 1, -1, out);
+    }
+  }
+
+  // Saabas contributions of one row; out needs numFeatures + 1 slots
+  public void saabas(double[] features, double[] out) {
+    prepare(features, out);
+    saabasRow(out, 0);
+  }
+
+  // Saabas contributions of packed rows, numFeatures + 1 values per row in out
+  public void saabas(double[] packedRows, int rowCount, double[] out) {
+    int stride = numFeatures + 1;
+    if (rowCount < 0
+        || packedRows.length < rowCount * numFeatures
+        || out.length < rowCount * stride) {
+      throw new IllegalArgumentException("Arrays are too short for " + rowCount + " rows");
+    }
+    for (int r = 0; r < rowCount; r++) {
+      int offset = r * stride;
+      for (int f = 0; f < numFeatures; f++) {
+        row[f] = (float) packedRows[r * numFeatures + f];
+        out[offset + f] = 0;
+      }
+      out[offset + numFeatures] = bias;
+      saabasRow(out, offset);
+    }
+  }
+
+  private void prepare(double[] features, double[] out) {
+    if (features.length != numFeatures || out.length < numFeatures + 1) {
+      throw new IllegalArgumentException(
+          "Expected " + numFeatures + " features and " + (numFeatures + 1) + " output slots");
+    }
+    for (int f = 0; f < numFeatures; f++) {
+      row[f] = (float) features[f];
+      out[f] = 0;
+    }
+    out[numFeatures] = bias;
+  }
+
+  private void saabasRow(double[] out, int offset) {
+    for (int t = 0; t < trees.length; t++) {
+      XGBoostModel.Tree tree = trees[t];
+      double[] means = nodeMeans[t];
+      int node = 0;
+      while (!tree.isLeaf(node)) {
+        int next = hotChild(tree, node);
+        out[offset + tree.splitIndices[node]] += means[next] - means[node];
+        node = next;
+      }
+    }
+  }
+
+  // The child this row follows; missing values (NaN) take the split's default direction
+  private int hotChild(XGBoostModel.Tree tree, int node) {
+    float v = row[tree.splitIndices[node]];
+    return v < tree.splitConditions[node] || (v != v && tree.defaultLeft[node])
+        ? tree.leftChildren[node]
+        : tree.rightChildren[node];
+  }
+
+  // Algorithm 2: the path from the root holds, per distinct feature, the fraction of cover that
+  // follows it (zero) and whether this row follows it (one), plus the permutation weights
+  private void treeShap(
+      XGBoostModel.Tree tree,
+      int node,
+      int depth,
+      int parentPath,
+      double parentZero,
+      double parentOne,
+      int parentFeature,
+      double[] out) {
+    int path = parentPath + depth + 1;
+    System.arraycopy(pathFeature, parentPath, pathFeature, path, depth + 1);
+    System.arraycopy(pathZero, parentPath, pathZero, path, depth + 1);
+    System.arraycopy(pathOne, parentPath, pathOne, path, depth + 1);
+    System.arraycopy(pathWeight, parentPath, pathWeight, path, depth + 1);
+    extendPath(path, depth, parentZero, parentOne, parentFeature);
+
+    if (tree.isLeaf(node)) {
+      double leaf = tree.leafValue(node);
+      for (int i = 1; i <= depth; i++) {
+        double weight = unwoundPathSum(path, depth, i);
+        out[pathFeature[path + i]] += weight * (pathOne[path + i] - pathZero[path + i]) * leaf;
+      }
+      return;
+    }
+
+    int feature = tree.splitIndices[node];
+    int hot = hotChild(tree, node);
+    int cold = hot == tree.leftChildren[node] ? tree.rightChildren[node] : tree.leftChildren[node];
+    double cover = tree.sumHessian[node];
+    double hotZero = tree.sumHessian[hot] / cover;
+    double coldZero = tree.sumHessian[cold] / cover;
+
+    // A feature already on the path is taken off and put back with both splits combined
+    double incomingZero = 1;
+    double incomingOne = 1;
+    int index = 0;
+    while (index <= depth && pathFeature[path + index] != feature) {
+      index++;
+    }
+    if (index <= depth) {
+      incomingZero = pathZero[path + index];
+      incomingOne = pathOne[path + index];
+      unwindPath(path, depth, index);
+      depth--;
+    }
+    treeShap(tree, hot, depth + 1, path, hotZero * incomingZero, incomingOne, feature, out);
+    treeShap(tree, cold, depth + 1, path, coldZero * incomingZero, 0, feature, out);
+  }
+
+  private void extendPath(int path, int depth, double zero, double one, int feature) {
+    pathFeature[path + depth] = feature;
+    pathZero[path + depth] = zero;
+    pathOne[path + depth] = one;
+    pathWeight[path + depth] = depth == 0 ? 1 : 0;
+    double scale = reciprocal[depth + 1];
+    for (int i = depth - 1; i >= 0; i--) {
+      pathWeight[path + i + 1] += one * pathWeight[path + i] * (i + 1) * scale;
+      pathWeight[path + i] = zero * pathWeight[path + i] * (depth - i) * scale;
+    }
+  }
+
+  private void unwindPath(int path, int depth, int index) {
+    double one = pathOne[path + index];
+    double zero = pathZero[path + index];
+    double next = pathWeight[path + depth];
+    double scale = reciprocal[depth + 1];
+    for (int i = depth - 1; i >= 0; i--) {
+      if (one != 0) {
+        double weight = pathWeight[path + i];
+        pathWeight[path + i] = next * (depth + 1) * reciprocal[i + 1] / one;
+        next = weight - pathWeight[path + i] * zero * (depth - i) * scale;
+      } else {
+        pathWeight[path + i] = pathWeight[path + i] * (depth + 1) * reciprocal[depth - i] / zero;
+      }
+    }
+    for (int i = index; i < depth; i++) {
+      pathFeature[path + i] = pathFeature[path + i + 1];
+      pathZero[path + i] = pathZero[path + i + 1];
+      pathOne[path + i] = pathOne[path + i + 1];
+    }
+  }
+
+  // Total permutation weight of the path with element index removed, without modifying it
+  private double unwoundPathSum(int path, int depth, int index) {
+    double one = pathOne[path + index];
+    double zero = pathZero[path + index];
+    double next = pathWeight[path + depth];
+    double total = 0;
+    if (one != 0) {
+      // one is 1 or 0 here (the row follows a branch or it doesn't), so this is exact
+      double scale = (depth + 1) / one;
+      double zeroScale = zero * reciprocal[depth + 1];
+      for (int i = depth - 1; i >= 0; i--) {
+        double weight = next * scale * reciprocal[i + 1];
+        total += weight;
+        next = pathWeight[path + i] - weight * zeroScale * (depth - i);
+      }
+    } else if (zero != 0) {
+      double scale = (depth + 1) / zero;
+      for (int i = depth - 1; i >= 0; i--) {
+        total += pathWeight[path + i] * scale * reciprocal[depth - i];
+      }
+    }
+    return total;
+  }
+}
@@ -0,0 +1,469 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Pure-Java scorer for the gradient boosted trees saved by {@code predict_diabetes.py}.
+ *
+ * <p>Reads the native XGBoost JSON format ({@code Model/diabetes_xgboost.json}) once and reproduces
+ * the float arithmetic of XGBoost 2.1.4, which saved it, so margins, probabilities and labels match
+ * {@code XGBClassifier} exactly ({@code XGBoostParityTest}). Scoring runs on the {@link
+ * FlatEnsemble} compiled from the trees at load time; with {@code -Ddiabetes.engine=compiled},
+ * single rows go through a {@link CompiledEnsemble} instead, and with {@code
+ * -Ddiabetes.engine=vector}, packed batches use the Vector API engine when it is available; {@code
+ * -Ddiabetes.engine=quantized} scores them on bin codes with a {@link QuantizedEnsemble}.
+ *
+ * <p>Scores come out as primitives: the margin (log-odds, which ranks rows exactly like the
+ * probability) and the probability. {@code -Ddiabetes.sigmoid=fast} swaps the exact logistic
+ * transform for {@link FastSigmoid}. Labels compare the probability with {@code
+ * -Ddiabetes.threshold}, which defaults to XGBClassifier's 0.5.
+ */
+public final class XGBoostModel implements DiabetesPredictor {
+  public static final Path DEFAULT_PATH = Paths.get("Model", "diabetes_xgboost.json");
+  public static final String OBJECTIVE = "binary:logistic";
+  public static final String ENGINE_PROPERTY = "diabetes.engine";
+  public static final String SIGMOID_PROPERTY = "diabetes.sigmoid";
+  public static final String THRESHOLD_PROPERTY = "diabetes.threshold";
+  public static final float DEFAULT_THRESHOLD = 0.5f;
+  private static final float THRESHOLD = threshold(System.getProperty(THRESHOLD_PROPERTY));
+
+  // Column order the model was trained on (Pima Indians Diabetes dataset)
+  public static final String[] FEATURE_NAMES = {
+    "Pregnancies",
+    "Glucose",
+    "BloodPressure",
+    "SkinThickness",
+    "Insulin",
+    "BMI",
+    "DiabetesPedigreeFunction",
+    "Age"
+  };
+
+  private final int numFeatures;
+  private final float baseScore;
+  private final float baseMargin;
+  private final Tree[] trees;
+  private final FlatEnsemble flat;
+  private final BatchMarginScorer batch;
+  private final CompiledEnsemble compiled;
+  private final boolean fastSigmoid;
+  private final int fingerprint;
+  private volatile TreeExplainer explainer;
+  // Copies not in use, as many as have explained at once; unlike a ThreadLocal, they cannot keep
+  // the model alive in a pooled thread after it has been replaced
+  private final ArrayDeque<TreeExplainer> idleExplainers = new ArrayDeque<>();
+
+  XGBoostModel(int numFeatures, float baseScore, Tree[] trees) {
+    for (Tree tree : trees) {
+      for (int node = 0; node < tree.numNodes(); node++) {
+        if (!tree.isLeaf(node)
+            && (tree.splitIndices[node] < 0 || tree.splitIndices[node] >= numFeatures)) {
+          throw new IllegalArgumentException("Split on unknown feature " + tree.splitIndices[node]);
+        }
+      }
+    }
+    this.numFeatures = numFeatures;
+    this.baseScore = baseScore;
+    this.baseMargin = probToMargin(baseScore);
+    this.trees = trees;
+    this.flat = FlatEnsemble.compile(trees, numFeatures, baseMargin);
+    this.batch = batchEngine(flat);
+    this.compiled = null;
+    this.fastSigmoid = "fast".equals(System.getProperty(SIGMOID_PROPERTY));
+    this.fingerprint = fingerprint(numFeatures, baseScore, trees);
+  }
+
+  private XGBoostModel(XGBoostModel model, CompiledEnsemble compiled) {
+    this.numFeatures = model.numFeatures;
+    this.baseScore = model.baseScore;
+    this.baseMargin = model.baseMargin;
+    this.trees = model.trees;
+    this.flat = model.flat;
+    this.batch = model.batch;
+    this.compiled = compiled;
+    this.fastSigmoid = model.fastSigmoid;
+    this.fingerprint = model.fingerprint;
+  }
+
+  private static BatchMarginScorer batchEngine(FlatEnsemble flat) {
+    String engine = System.getProperty(ENGINE_PROPERTY);
+    if ("vector".equals(engine)) {
+      return vectorEngine(flat);
+    }
+    if ("quantized".equals(engine)) {
+      return QuantizedEnsemble.compile(flat);
+    }
+    return flat;
+  }
+
+  // The vector engine is only compiled with -Pvector and needs the incubator module at runtime
+  private static BatchMarginScorer vectorEngine(FlatEnsemble flat) {
+    try {
+      return (BatchMarginScorer)
+          Class.forName("JavaBackEnd.VectorEnsemble")
+              .getDeclaredConstructor(FlatEnsemble.class)
+              .newInstance(flat);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      System.err.println("Vector API engine unavailable (" + e + "), using scalar batches");
+      return flat;
+    }
+  }
+
+  // Reads a .bin file directly, and a JSON file through its BinaryModelFormat copy if that was
+  // converted from this very JSON
+  public static XGBoostModel load(Path path) throws IOException {
+    XGBoostModel model;
+    if (path.getFileName().toString().endsWith(BinaryModelFormat.EXTENSION)) {
+      model = BinaryModelFormat.read(path);
+    } else {
+      Path bin = BinaryModelFormat.siblingOf(path);
+      model = null;
+      if (Files.exists(bin)) {
+        try {
+          model = BinaryModelFormat.readCopyOf(path, bin);
+        } catch (IOException e) {
+          System.err.println(e.getMessage() + "; loading " + path + " instead");
+        }
+      }
+      if (model == null) {
+        model = loadJson(path);
+      }
+    }
+    return "compiled".equals(System.getProperty(ENGINE_PROPERTY))
+        ? model.withCompiledTrees()
+        : model;
+  }
+
+  static XGBoostModel loadJson(Path path) throws IOException {
+    String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    try {
+      return fromJson(Json.parse(text));
+    } catch (IllegalArgumentException | ClassCastException e) {
+      throw new IOException("Invalid XGBoost model " + path + ": " + e.getMessage(), e);
+    }
+  }
+
+  static XGBoostModel fromJson(Object root) {
+    Map<String, Object> learner = Json.object(root, "learner");
+
+    String objective = Json.string(Json.object(learner, "objective"), "name");
+    if (!OBJECTIVE.equals(objective)) {
+      throw new IllegalArgumentException("Unsupported objective " + objective);
+    }
+
+    Map<String, Object> params = Json.object(learner, "learner_model_param");
+    int numFeatures = Integer.parseInt(Json.string(params, "num_feature"));
+    float baseScore = Float.parseFloat(Json.string(params, "base_score"));
+
+    Map<String, Object> model = Json.object(Json.object(learner, "gradient_booster"), "model");
+    List<Object> treeList = Json.array(model, "trees");
+    Tree[] trees = new Tree[treeList.size()];
+    for (int t = 0; t < trees.length; t++) {
+      trees[t] = Tree.fromJson(treeList.get(t));
+    }
+    return new XGBoostModel(numFeatures, baseScore, trees);
+  }
+
+  public int getNumFeatures() {
+    return numFeatures;
+  }
+
+  public float getBaseScore() {
+    return baseScore;
+  }
+
+  public int getNumTrees() {
+    return trees.length;
+  }
+
+  float getBaseMargin() {
+    return baseMargin;
+  }
+
+  Tree getTree(int index) {
+    return trees[index];
+  }
+
+  /**
+   * CRC32 of everything the model scores and explains with, so logged predictions can be traced to
+   * the exact model across reloads and restarts. The JSON and binary copies of a model agree.
+   */
+  public int getFingerprint() {
+    return fingerprint;
+  }
+
+  @Override
+  public int getModelFingerprint() {
+    return fingerprint;
+  }
+
+  public FlatEnsemble getFlatEnsemble() {
+    return flat;
+  }
+
+  // Same model, scoring single rows with generated code; batches stay on the flat arrays
+  public XGBoostModel withCompiledTrees() {
+    return compiled != null ? this : new XGBoostModel(this, CompiledEnsemble.compile(this));
+  }
+
+  // Raw score before the logistic transform; features are rounded to float like a DMatrix
+  public float predictMargin(double[] features) {
+    return compiled != null ? compiled.predictMargin(features) : flat.predictMargin(features);
+  }
+
+  @Override
+  public float predictProbability(double[] features) {
+    return probability(predictMargin(features));
+  }
+
+  // Margin to probability with this model's sigmoid
+  public float probability(float margin) {
+    return fastSigmoid ? FastSigmoid.apply(margin) : sigmoid(margin);
+  }
+
+  // Margins of rows [fromRow, toRow) into out[fromRow .. toRow); enough to rank by risk
+  public void predictMargins(double[] packedRows, int fromRow, int toRow, float[] out) {
+    batch.predictMargins(packedRows, fromRow, toRow, out);
+  }
+
+  // Batch scoring: probabilities are written to out[0 .. rowCount)
+  public void predictProbabilities(double[] packedRows, int rowCount, float[] out) {
+    predictProbabilities(packedRows, 0, rowCount, out);
+  }
+
+  // Rows [fromRow, toRow) only; see ParallelBatchScorer
+  public void predictProbabilities(double[] packedRows, int fromRow, int toRow, float[] out) {
+    batch.predictMargins(packedRows, fromRow, toRow, out);
+    probabilities(out, fromRow, toRow);
+  }
+
+  public void predictProbabilities(double[][] rows, float[] out) {
+    flat.predictMargins(rows, out);
+    probabilities(out, 0, rows.length);
+  }
+
+  public void predictProbabilitiesColumnar(double[][] columns, int rowCount, float[] out) {
+    flat.predictMarginsColumnar(columns, rowCount, out);
+    probabilities(out, 0, rowCount);
+  }
+
+  @Override
+  public int predict(double[] features) {
+    return toLabel(predictProbability(features));
+  }
+
+  // Exact TreeSHAP values
+  @Override
+  public boolean explain(double[] features, double[] contributions) {
+    TreeExplainer current;
+    synchronized (idleExplainers) {
+      current = idleExplainers.poll();
+    }
+    if (current == null) {
+      current = explainer().copy();
+    }
+    try {
+      current.shap(features, contributions);
+    } finally {
+      synchronized (idleExplainers) {
+        idleExplainers.push(current);
+      }
+    }
+    return true;
+  }
+
+  // Node expectations are computed on the first explanation and shared by every thread's copy
+  private TreeExplainer explainer() {
+    TreeExplainer current = explainer;
+    if (current == null) {
+      synchronized (this) {
+        current = explainer;
+        if (current == null) {
+          current = new TreeExplainer(this);
+          explainer = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  // Positive when the probability is above -Ddiabetes.threshold
+  public static int toLabel(float probability) {
+    return toLabel(probability, THRESHOLD);
+  }
+
+  // threshold 0.5 is the rule XGBClassifier.predict uses for binary:logistic
+  public static int toLabel(float probability, float threshold) {
+    return probability > threshold ? 1 : 0;
+  }
+
+  public static float getThreshold() {
+    return THRESHOLD;
+  }
+
+  private static float threshold(String value) {
+    if (value == null) {
+      return DEFAULT_THRESHOLD;
+    }
+    float threshold = Float.parseFloat(value.trim());
+    if (!(threshold > 0 && threshold < 1)) {
+      throw new IllegalArgumentException(THRESHOLD_PROPERTY + " must be between 0 and 1");
+    }
+    return threshold;
+  }
+
+  // common::Sigmoid, unchanged from XGBoost 1.7 to 2.1
+  public static float sigmoid(float margin) {
+    float x = Math.min(-margin, 88.7f);
+    float denom = (float) Math.exp(x) + 1.0f + 1e-16f;
+    return 1.0f / denom;
+  }
+
+  private void probabilities(float[] margins, int from, int to) {
+    if (fastSigmoid) {
+      for (int i = from; i < to; i++) {
+        margins[i] = FastSigmoid.apply(margins[i]);
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        margins[i] = sigmoid(margins[i]);
+      }
+    }
+  }
+
+  private static int fingerprint(int numFeatures, float baseScore, Tree[] trees) {
+    CRC32 crc = new CRC32();
+    crc.update(
+        ByteBuffer.allocate(12)
+            .putInt(numFeatures)
+            .putFloat(baseScore)
+            .putInt(trees.length)
+            .flip());
+    for (Tree tree : trees) {
+      ByteBuffer nodes = ByteBuffer.allocate(21 * tree.numNodes());
+      for (int node = 0; node < tree.numNodes(); node++) {
+        nodes
+            .putInt(tree.splitIndices[node])
+            .putFloat(tree.splitConditions[node])
+            .putInt(tree.leftChildren[node])
+            .putInt(tree.rightChildren[node])
+            .putFloat(tree.sumHessian[node])
+            .put((byte) (tree.defaultLeft[node] ? 1 : 0));
+      }
+      crc.update(nodes.flip());
+    }
+    return (int) crc.getValue();
+  }
+
+  // LogisticRegression::ProbToMargin, applied to base_score when the model is configured
+  static float probToMargin(float baseScore) {
+    return -(float) Math.log(1.0f / baseScore - 1.0f);
+  }
+
+  // One regression tree in XGBoost's own array layout
+  static final class Tree {
+    final int[] splitIndices;
+    final float[] splitConditions;
+    final int[] leftChildren;
+    final int[] rightChildren;
+    final boolean[] defaultLeft;
+    // Cover: the training rows' summed hessian that reached each node, used by TreeExplainer
+    final float[] sumHessian;
+
+    Tree(
+        int[] splitIndices,
+        float[] splitConditions,
+        int[] leftChildren,
+        int[] rightChildren,
+        boolean[] defaultLeft,
+        float[] sumHessian) {
+      this.splitIndices = splitIndices;
+      this.splitConditions = splitConditions;
+      this.leftChildren = leftChildren;
+      this.rightChildren = rightChildren;
+      this.defaultLeft = defaultLeft;
+      this.sumHessian = sumHessian;
+      int numNodes = splitIndices.length;
+      if (splitConditions.length != numNodes
+          || leftChildren.length != numNodes
+          || rightChildren.length != numNodes
+          || defaultLeft.length != numNodes
+          || sumHessian.length != numNodes) {
+        throw new IllegalArgumentException("Tree arrays have mismatched lengths");
+      }
+      for (int node = 0; node < numNodes; node++) {
+        if (leftChildren[node] < -1
+            || leftChildren[node] >= numNodes
+            || rightChildren[node] < -1
+            || rightChildren[node] >= numNodes
+            || (leftChildren[node] == -1) != (rightChildren[node] == -1)) {
+          throw new IllegalArgumentException("Node " + node + " has invalid children");
+        }
+      }
+    }
+
+    static Tree fromJson(Object json) {
+      Tree tree =
+          new Tree(
+              ints(Json.array(json, "split_indices")),
+              floats(Json.array(json, "split_conditions")),
+              ints(Json.array(json, "left_children")),
+              ints(Json.array(json, "right_children")),
+              booleans(Json.array(json, "default_left")),
+              floats(Json.array(json, "sum_hessian")));
+      for (Object type : Json.array(json, "split_type")) {
+        if (((BigDecimal) type).intValue() != 0) {
+          throw new IllegalArgumentException("Categorical splits are not supported");
+        }
+      }
+      return tree;
+    }
+
+    int numNodes() {
+      return splitIndices.length;
+    }
+
+    boolean isLeaf(int node) {
+      return leftChildren[node] == -1;
+    }
+
+    // XGBoost stores the leaf value in split_conditions for leaf nodes
+    float leafValue(int node) {
+      return splitConditions[node];
+    }
+
+    private static int[] ints(List<Object> values) {
+      int[] result = new int[values.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = ((BigDecimal) values.get(i)).intValueExact();
+      }
+      return result;
+    }
+
+    private static float[] floats(List<Object> values) {
+      float[] result = new float[values.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = ((BigDecimal) values.get(i)).floatValue();
+      }
+      return result;
+    }
+
+    private static boolean[] booleans(List<Object> values) {
+      boolean[] result = new boolean[values.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = ((BigDecimal) values.get(i)).intValue() != 0;
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AssessmentLogTest {
+  private static final double[] ROW = {6, 148, 72, 35, 0, 33.6, 0.627, 50};
+
+  @TempDir Path dir;
+
+  @Test
+  void recordsRoundTrip() throws IOException {
+    try (AssessmentLog log = new AssessmentLog(dir, 16, 1 << 20)) {
+      assertEquals(0, log.append(AssessmentLog.Source.SERVER, 42, ROW, 0, 0b10, 0.25f));
+    }
+    List<AssessmentLog.Record> records = readAll();
+    assertEquals(1, records.size());
+    AssessmentLog.Record record = records.get(0);
+    assertEquals(0, record.sequence);
+    assertEquals(42, record.modelFingerprint);
+    assertEquals(0.25f, record.probability);
+    assertEquals(AssessmentLog.Source.SERVER, record.source);
+    assertEquals(0b10, record.imputedMask);
+    assertArrayEquals(ROW, record.features);
+  }
+
+  @Test
+  void aSecondLogCannotOpenTheSameDirectory() throws IOException {
+    try (AssessmentLog log = new AssessmentLog(dir, 16, 1 << 20)) {
+      log.append(AssessmentLog.Source.SERVER, 42, ROW, 0, 0, 0.25f);
+      IOException e = assertThrows(IOException.class, () -> new AssessmentLog(dir, 16, 1 << 20));
+      assertTrue(e.getMessage().contains("already in use"), e.getMessage());
+    }
+    // Released on close
+    try (AssessmentLog log = new AssessmentLog(dir, 16, 1 << 20)) {
+      assertEquals(1, log.append(AssessmentLog.Source.SERVER, 42, ROW, 0, 0, 0.5f));
+    }
+    assertEquals(2, readAll().size());
+  }
+
+  @Test
+  void reopeningCutsATornTailAndCarriesOn() throws IOException {
+    try (AssessmentLog log = new AssessmentLog(dir, 16, 1 << 20)) {
+      for (int i = 0; i < 3; i++) {
+        log.append(AssessmentLog.Source.ASSISTANT, 1, ROW, 0, 0, 0.5f);
+      }
+    }
+    Path segment = onlyFile("assessments-*.log");
+    long intact = Files.size(segment);
+    // A crash halfway through writing the fourth record
+    byte[] partial = new byte[AssessmentLog.RECORD_SIZE / 2];
+    partial[0] = 3;
+    Files.write(segment, partial, StandardOpenOption.APPEND);
+
+    try (AssessmentLog log = new AssessmentLog(dir, 16, 1 << 20)) {
+      assertEquals(intact, Files.size(segment));
+      assertEquals(partial.length, Files.size(onlyFile("assessments-*.log.torn-*")));
+      assertEquals(3, log.append(AssessmentLog.Source.SERVER, 2, ROW, 0, 0, 0.75f));
+    }
+    List<AssessmentLog.Record> records = readAll();
+    assertEquals(4, records.size());
+    for (int i = 0; i < records.size(); i++) {
+      assertEquals(i, records.get(i).sequence);
+    }
+    assertEquals(0.75f, records.get(3).probability);
+  }
+
+  @Test
+  void reopeningCutsACorruptLastRecord() throws IOException {
+    try (AssessmentLog log = new AssessmentLog(dir, 16, 1 << 20)) {
+      log.append(AssessmentLog.Source.ASSISTANT, 1, ROW, 0, 0, 0.5f);
+      log.append(AssessmentLog.Source.ASSISTANT, 1, ROW, 0, 0, 0.5f);
+    }
+    Path segment = onlyFile("assessments-*.log");
+    byte[] bytes = Files.readAllBytes(segment);
+    // Flip a bit in the last record's probability, so its CRC no longer matches
+    bytes[bytes.length - AssessmentLog.RECORD_SIZE + 20] ^= 1;
+    Files.write(segment, bytes);
+
+    try (AssessmentLog log = new AssessmentLog(dir, 16, 1 << 20)) {
+      assertEquals(1, log.append(AssessmentLog.Source.SERVER, 2, ROW, 0, 0, 0.75f));
+    }
+    List<AssessmentLog.Record> records = readAll();
+    assertEquals(2, records.size());
+    assertEquals(0.75f, records.get(1).probability);
+  }
+
+  private List<AssessmentLog.Record> readAll() throws IOException {
+    List<AssessmentLog.Record> records = new ArrayList<>();
+    AssessmentLog.read(dir, records::add);
+    return records;
+  }
+
+  private Path onlyFile(String glob) throws IOException {
+    List<Path> matches = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+      stream.forEach(matches::add);
+    }
+    assertEquals(1, matches.size(), glob);
+    return matches.get(0);
+  }
+}
@@ -0,0 +1,60 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinaryModelFormatTest {
+  @TempDir Path dir;
+
+  private Path json;
+  private Path bin;
+
+  @BeforeEach
+  void convert() throws IOException {
+    json = dir.resolve("model.json");
+    Files.copy(TestModels.MODEL, json);
+    bin = BinaryModelFormat.siblingOf(json);
+    BinaryModelFormat.write(XGBoostModel.loadJson(json), bin, json);
+  }
+
+  @Test
+  void copyLoadsLikeItsJson() throws IOException {
+    int fingerprint = TestModels.bundled().getFingerprint();
+    assertEquals(fingerprint, BinaryModelFormat.readCopyOf(json, bin).getFingerprint());
+    assertEquals(fingerprint, XGBoostModel.load(json).getFingerprint());
+    assertEquals(fingerprint, XGBoostModel.load(bin).getFingerprint());
+  }
+
+  @Test
+  void staleCopyIsIgnoredWhateverItsTimestamp() throws IOException {
+    // A new model deployed with its original, older modification time kept
+    String text = Files.readString(json, StandardCharsets.UTF_8);
+    Files.writeString(
+        json, text.replace("\"base_score\":\"3.5151696E-1\"", "\"base_score\":\"4E-1\""));
+    Files.setLastModifiedTime(json, FileTime.fromMillis(0));
+
+    XGBoostModel updated = XGBoostModel.loadJson(json);
+    assertNotEquals(TestModels.bundled().getFingerprint(), updated.getFingerprint());
+    assertThrows(IOException.class, () -> BinaryModelFormat.readCopyOf(json, bin));
+    assertEquals(updated.getFingerprint(), XGBoostModel.load(json).getFingerprint());
+    // Named explicitly, the copy is still read as it is
+    assertEquals(TestModels.bundled().getFingerprint(), XGBoostModel.load(bin).getFingerprint());
+  }
+
+  @Test
+  void copyWithoutSourceIsOnlyReadByName() throws IOException {
+    BinaryModelFormat.write(TestModels.bundled(), bin);
+    assertThrows(IOException.class, () -> BinaryModelFormat.readCopyOf(json, bin));
+    assertEquals(TestModels.bundled().getFingerprint(), XGBoostModel.load(bin).getFingerprint());
+  }
+}
@@ -0,0 +1,115 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BulkScorerTest {
+  private static final int WIDTH = XGBoostModel.FEATURE_NAMES.length;
+  // Valid values for the columns after the first
+  private static final String REST = ",148,72,35,80,33.6,0.627,50";
+
+  @Test
+  void numbersParseExactlyLikeParseDouble() {
+    String[] samples = {
+      "0",
+      "6",
+      "17",
+      "0.627",
+      "33.6",
+      "0.1",
+      "2.288",
+      "1.",
+      "007",
+      "+3",
+      "-0",
+      "1e1",
+      "2.5E-1",
+      "0.30000000000000004",
+      "123456789012345678",
+      "1.7976931348623157e308",
+      "4.9e-324"
+    };
+    for (String sample : samples) {
+      assertParses(sample);
+    }
+    // Short decimals take the exact fast path, long ones fall back to parseDouble
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      int digits = 1 + random.nextInt(19);
+      StringBuilder text = new StringBuilder();
+      for (int d = 0; d < digits; d++) {
+        text.append((char) ('0' + random.nextInt(10)));
+      }
+      int dot = random.nextInt(digits + 1);
+      if (dot < digits) {
+        text.insert(dot, '.');
+      }
+      assertParses(text.toString());
+    }
+  }
+
+  @Test
+  void emptyCellsAreMissing() {
+    double[] row = new double[WIDTH];
+    assertNull(cursor("6,,72,35,,33.6,0.627,50\n").readRow(row, 0));
+    assertTrue(Double.isNaN(row[1]));
+    assertTrue(Double.isNaN(row[4]));
+    assertEquals(72, row[2]);
+  }
+
+  @Test
+  void outcomeColumnAndCrlfAreAccepted() {
+    double[] row = new double[WIDTH];
+    assertNull(cursor("6" + REST + ",1\r\n").readRow(row, 0));
+    assertEquals(50, row[WIDTH - 1]);
+  }
+
+  @Test
+  void badRowsAreRejectedWithAReason() {
+    double[] row = new double[WIDTH];
+    assertEquals("bad number in Pregnancies", cursor("x" + REST + "\n").readRow(row, 0));
+    assertEquals("bad number in Pregnancies", cursor("1e" + REST + "\n").readRow(row, 0));
+    assertEquals("expected 8 columns", cursor("1.2.3" + REST + "\n").readRow(row, 0));
+    assertEquals("expected 8 columns", cursor("6,148,72\n").readRow(row, 0));
+    assertEquals("expected 8 columns", cursor("6" + REST + ",1,2\n").readRow(row, 0));
+    assertEquals("bad number in Outcome", cursor("6" + REST + ",yes\n").readRow(row, 0));
+    assertEquals("Pregnancies must be 0 or higher", cursor("-1" + REST + "\n").readRow(row, 0));
+    assertEquals(BulkScorer.Cursor.BLANK, cursor("\n").readRow(row, 0));
+  }
+
+  @Test
+  void rowsAreReadOneLineAtATime() {
+    BulkScorer.Cursor cursor = cursor("x" + REST + "\n2" + REST + "\n");
+    double[] row = new double[WIDTH];
+    cursor.readRow(row, 0);
+    cursor.nextLine();
+    assertNull(cursor.readRow(row, 0));
+    assertEquals(2, row[0]);
+    cursor.nextLine();
+    assertEquals(cursor.limit, cursor.pos);
+  }
+
+  // The text as the first column of an otherwise valid row
+  private static void assertParses(String text) {
+    double[] row = new double[WIDTH];
+    BulkScorer.Cursor cursor = cursor(text + REST + "\n");
+    String error = cursor.readRow(row, 0);
+    double expected = Double.parseDouble(text);
+    if (expected < 0) {
+      assertEquals("Pregnancies must be 0 or higher", error, text);
+    } else {
+      assertNull(error, text);
+    }
+    assertEquals(expected, row[0], text);
+  }
+
+  private static BulkScorer.Cursor cursor(String text) {
+    return new BulkScorer.Cursor(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)));
+  }
+}
@@ -0,0 +1,119 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link CompiledEnsemble} and {@link QuantizedEnsemble} must return the same margin, bit for bit,
+ * as the interpreted {@link FlatEnsemble} over every input the assistant accepts.
+ *
+ * <p>Inputs cover the {@link FeatureSchema#MEASUREMENTS} ranges (and 0 to {@value #MAX_PREGNANCIES}
+ * pregnancies): every split threshold inside a range, one ulp either side of it, the range ends and
+ * NaN, each against several random backgrounds, followed by uniform random rows.
+ */
+class EngineAgreementTest {
+  private static final int MAX_PREGNANCIES = 20;
+  private static final int BACKGROUNDS = 8;
+  private static final int RANDOM_ROWS = 50_000;
+
+  private static FlatEnsemble flat;
+  private static double[][] rows;
+
+  @BeforeAll
+  static void buildRows() {
+    XGBoostModel model = TestModels.bundled();
+    flat = model.getFlatEnsemble();
+    FeatureBinning binning = FeatureBinning.of(model);
+    double[] min = new double[model.getNumFeatures()];
+    double[] max = new double[model.getNumFeatures()];
+    max[0] = MAX_PREGNANCIES;
+    for (MeasurementConfig config : FeatureSchema.MEASUREMENTS) {
+      min[config.featureIndex()] = config.absoluteMin;
+      max[config.featureIndex()] = config.absoluteMax;
+    }
+
+    Random random = new Random(42);
+    List<double[]> list = new ArrayList<>();
+    for (int f = 0; f < min.length; f++) {
+      for (double value : boundaries(binning.thresholds(f), min[f], max[f])) {
+        for (int b = 0; b < BACKGROUNDS; b++) {
+          double[] row = randomRow(min, max, random);
+          row[f] = value;
+          list.add(row);
+        }
+      }
+    }
+    for (int i = 0; i < RANDOM_ROWS; i++) {
+      list.add(randomRow(min, max, random));
+    }
+    rows = list.toArray(new double[0][]);
+  }
+
+  @Test
+  void compiledTreesMatchFlatLayout() {
+    CompiledEnsemble compiled = CompiledEnsemble.compile(TestModels.bundled());
+    for (double[] row : rows) {
+      assertEquals(flat.predictMargin(row), compiled.predictMargin(row), Arrays.toString(row));
+    }
+  }
+
+  @Test
+  void quantizedRowsMatchFlatLayout() {
+    QuantizedEnsemble quantized = QuantizedEnsemble.compile(flat);
+    for (double[] row : rows) {
+      assertEquals(flat.predictMargin(row), quantized.predictMargin(row), Arrays.toString(row));
+    }
+  }
+
+  @Test
+  void quantizedBatchesMatchFlatLayout() {
+    QuantizedEnsemble quantized = QuantizedEnsemble.compile(flat);
+    int width = flat.numFeatures;
+    double[] packed = new double[rows.length * width];
+    for (int r = 0; r < rows.length; r++) {
+      System.arraycopy(rows[r], 0, packed, r * width, width);
+    }
+    float[] expected = new float[rows.length];
+    float[] actual = new float[rows.length];
+    flat.predictMargins(packed, 0, rows.length, expected);
+    // An odd start exercises a partial first block
+    quantized.predictMargins(packed, 0, 3, actual);
+    quantized.predictMargins(packed, 3, rows.length, actual);
+    for (int r = 0; r < rows.length; r++) {
+      assertEquals(expected[r], actual[r], Arrays.toString(rows[r]));
+    }
+  }
+
+  // Thresholds within [min, max], their float neighbours, the range ends and NaN
+  private static double[] boundaries(float[] thresholds, double min, double max) {
+    double[] values = new double[thresholds.length * 3 + 3];
+    int count = 0;
+    for (float t : thresholds) {
+      for (float v : new float[] {Math.nextDown(t), t, Math.nextUp(t)}) {
+        if (v >= min && v <= max) {
+          values[count++] = v;
+        }
+      }
+    }
+    values[count++] = min;
+    values[count++] = max;
+    values[count++] = Double.NaN;
+    return Arrays.copyOf(values, count);
+  }
+
+  private static double[] randomRow(double[] min, double[] max, Random random) {
+    double[] row = new double[min.length];
+    for (int f = 0; f < row.length; f++) {
+      row[f] = min[f] + random.nextDouble() * (max[f] - min[f]);
+    }
+    // Pregnancies is a count
+    row[0] = Math.rint(row[0]);
+    return row;
+  }
+}
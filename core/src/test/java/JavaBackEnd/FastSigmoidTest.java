@@ -0,0 +1,43 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link FastSigmoid} stays within {@link FastSigmoid#MAX_ABS_ERROR} of the exact sigmoid and never
+ * decreases, sampled densely inside every table interval, at the knots and one ulp either side, and
+ * out into both tails.
+ */
+class FastSigmoidTest {
+  private static final int STEPS_PER_UNIT = 64;
+  private static final int LIMIT = 16;
+  private static final int SAMPLES_PER_STEP = 512;
+
+  @Test
+  void staysWithinErrorBoundAndMonotone() {
+    float previous = 0;
+    int steps = 2 * (LIMIT + 8) * STEPS_PER_UNIT;
+    for (int i = 0; i < steps; i++) {
+      float knot = (float) i / STEPS_PER_UNIT - LIMIT - 8;
+      previous = check(Math.nextDown(knot), previous);
+      previous = check(knot, previous);
+      previous = check(Math.nextUp(knot), previous);
+      for (int j = 1; j < SAMPLES_PER_STEP; j++) {
+        previous = check(knot + (float) j / (SAMPLES_PER_STEP * STEPS_PER_UNIT), previous);
+      }
+    }
+    for (float margin : new float[] {-1e30f, -100f, 100f, 1e30f}) {
+      check(margin, margin < 0 ? 0 : previous);
+    }
+  }
+
+  // Returns the fast value for the next sample to compare with
+  private static float check(float margin, float previous) {
+    float fast = FastSigmoid.apply(margin);
+    float error = Math.abs(fast - XGBoostModel.sigmoid(margin));
+    assertTrue(error <= FastSigmoid.MAX_ABS_ERROR, "Error " + error + " at margin " + margin);
+    assertTrue(fast >= previous, "Decreases at margin " + margin);
+    return fast;
+  }
+}
@@ -0,0 +1,33 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class JsonTest {
+  @Test
+  void acceptsNestingUpToTheLimit() {
+    String text = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+    Object value = Json.parse(text);
+    for (int level = 1; level < Json.MAX_DEPTH; level++) {
+      value = ((List<?>) value).get(0);
+    }
+    assertEquals(List.of(), value);
+  }
+
+  @Test
+  void rejectsDeeperNestingWithoutOverflowingTheStack() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Json.parse("[".repeat(Json.MAX_DEPTH + 1) + "]".repeat(Json.MAX_DEPTH + 1)));
+    assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":".repeat(100_000)));
+  }
+
+  @Test
+  void siblingsDoNotCountAsNesting() {
+    String text = "[" + "[],".repeat(Json.MAX_DEPTH * 2) + "{}]";
+    assertEquals(Json.MAX_DEPTH * 2 + 1, ((List<?>) Json.parse(text)).size());
+  }
+}
@@ -0,0 +1,43 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class MicroBatcherTest {
+  private static final double[] ROW = {6, 148, 72, 35, 80, 33.6, 0.627, 50};
+
+  @Test
+  void pinnedRequestsExplainWithTheModelThatScoredThem() throws Exception {
+    XGBoostModel first = TestModels.bundled();
+    XGBoostModel.Tree[] trees = new XGBoostModel.Tree[first.getNumTrees()];
+    for (int t = 0; t < trees.length; t++) {
+      trees[t] = first.getTree(t);
+    }
+    // Same trees, another base score: a different model and fingerprint
+    XGBoostModel second = new XGBoostModel(first.getNumFeatures(), 0.25f, trees);
+    assertNotEquals(first.getFingerprint(), second.getFingerprint());
+
+    AtomicReference<XGBoostModel> current = new AtomicReference<>(first);
+    try (MicroBatcher batcher = new MicroBatcher(current::get, 4, 0)) {
+      DiabetesPredictor pinned = batcher.pinned();
+      assertEquals(first.predictProbability(ROW), pinned.predictProbability(ROW));
+      // A reload between scoring and explaining
+      current.set(second);
+
+      double[] expected = new double[ROW.length + 1];
+      first.explain(ROW, expected);
+      double[] contributions = new double[ROW.length + 1];
+      pinned.explain(ROW, contributions);
+      assertArrayEquals(expected, contributions);
+      assertEquals(first.getFingerprint(), pinned.getModelFingerprint());
+
+      MicroBatcher.Request request = batcher.submit(ROW);
+      assertEquals(second.predictProbability(ROW), request.await());
+      assertEquals(second.getFingerprint(), request.getModelFingerprint());
+    }
+  }
+}
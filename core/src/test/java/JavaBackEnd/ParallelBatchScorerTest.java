@@ -0,0 +1,34 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Slicing a batch across threads must not change a single probability
+class ParallelBatchScorerTest {
+  @Test
+  void matchesSingleThreadedScoring() {
+    XGBoostModel model = TestModels.bundled();
+    int width = model.getNumFeatures();
+    // Not a multiple of BLOCK_ROWS, so the last slice is short
+    int rows = 100_003;
+    Random random = new Random(42);
+    double[] packed = new double[rows * width];
+    for (int i = 0; i < packed.length; i++) {
+      packed[i] = random.nextInt(10) == 0 ? Double.NaN : random.nextDouble() * 200;
+    }
+    float[] expected = new float[rows];
+    model.predictProbabilities(packed, rows, expected);
+
+    for (int threads : new int[] {1, 2, 4, Runtime.getRuntime().availableProcessors()}) {
+      try (ParallelBatchScorer scorer = new ParallelBatchScorer(model, threads)) {
+        float[] out = new float[rows];
+        scorer.predictProbabilities(packed, rows, out);
+        for (int r = 0; r < rows; r++) {
+          assertEquals(expected[r], out[r], threads + " threads, row " + r);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class PredictionCacheTest {
+  private static final double[] ROW = {6, 148, 72, 35, 0, 33.6, 0.627, 50};
+
+  @Test
+  void repeatedRowIsAHitWithTheModelsProbability() {
+    XGBoostModel model = TestModels.bundled();
+    PredictionCache cache = new PredictionCache(model, 1024, 60_000);
+    float expected = model.predictProbability(ROW);
+
+    assertEquals(expected, cache.predictProbability(ROW));
+    assertEquals(expected, cache.predictProbability(ROW));
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  void rowInTheSameBinsHitsWithTheSameProbability() {
+    XGBoostModel model = TestModels.bundled();
+    PredictionCache cache = new PredictionCache(model, 1024, 60_000);
+    FeatureBinning binning = FeatureBinning.of(model);
+    double[] other = ROW.clone();
+    // The highest glucose in the same bin as the row's, so the cache key is unchanged
+    int bin = binning.bin(1, (float) ROW[1]);
+    other[1] = Math.nextDown(binning.thresholds(1)[bin]);
+    assertNotEquals(ROW[1], other[1]);
+    assertEquals(bin, binning.bin(1, (float) other[1]));
+
+    cache.predictProbability(ROW);
+    assertEquals(model.predictProbability(other), cache.predictProbability(other));
+    assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  void expiredEntryIsAMiss() throws InterruptedException {
+    PredictionCache cache = new PredictionCache(TestModels.bundled(), 1024, 1);
+    cache.predictProbability(ROW);
+    Thread.sleep(20);
+    cache.predictProbability(ROW);
+    assertEquals(2, cache.getMisses());
+    assertEquals(0, cache.getHits());
+  }
+
+  @Test
+  void ttlOfZeroNeverExpires() throws InterruptedException {
+    PredictionCache cache = new PredictionCache(TestModels.bundled(), 1024, 0);
+    cache.predictProbability(ROW);
+    Thread.sleep(20);
+    cache.predictProbability(ROW);
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.getHits());
+  }
+}
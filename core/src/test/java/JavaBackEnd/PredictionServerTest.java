@@ -0,0 +1,76 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+// Oversized and hostile bodies are answered, not buffered or allowed to kill the handler
+class PredictionServerTest {
+  private static final String ROW =
+      "{\"pregnancies\":2,\"glucose\":148,\"diastolic\":72,\"skin_thickness\":35,"
+          + "\"insulin\":80,\"bmi\":33.6,\"dpf\":0.627,\"age\":50}";
+
+  private static PredictionServer server;
+  private static HttpClient client;
+
+  @BeforeAll
+  static void start() throws Exception {
+    server = new PredictionServer(TestModels.bundled(), new InetSocketAddress("127.0.0.1", 0));
+    server.start();
+    client = HttpClient.newHttpClient();
+  }
+
+  @AfterAll
+  static void stop() {
+    server.stop();
+  }
+
+  @Test
+  void scoresARow() throws Exception {
+    HttpResponse<String> response = post("/predict", HttpRequest.BodyPublishers.ofString(ROW));
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().contains("\"probability\""), response.body());
+  }
+
+  @Test
+  void refusesBodiesOverTheBudget() throws Exception {
+    byte[] body = new byte[PredictionServer.MAX_BODY_BYTES + 1];
+    Arrays.fill(body, (byte) ' ');
+    assertEquals(
+        413, post("/predict/batch", HttpRequest.BodyPublishers.ofByteArray(body)).statusCode());
+    // No Content-Length: the client sends it chunked
+    assertEquals(
+        413,
+        post(
+                "/predict/batch",
+                HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(body)))
+            .statusCode());
+  }
+
+  @Test
+  void rejectsDeepNesting() throws Exception {
+    String body = "[".repeat(100_000);
+    HttpResponse<String> response = post("/predict", HttpRequest.BodyPublishers.ofString(body));
+    assertEquals(400, response.statusCode());
+    assertTrue(response.body().contains("Nested deeper"), response.body());
+  }
+
+  private static HttpResponse<String> post(String path, HttpRequest.BodyPublisher body)
+      throws Exception {
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+            .POST(body)
+            .build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+}
@@ -0,0 +1,42 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PredictionServiceTest {
+  private static final double[] ROW = {6, 148, 72, 35, 80, 33.6, 0.627, 50};
+
+  @Test
+  void predictionNamesTheModelThatScoredIt() throws Exception {
+    XGBoostModel scoring = TestModels.bundled();
+    // Has already moved on to another model by the time anyone asks it
+    DiabetesPredictor reloaded =
+        new DiabetesPredictor() {
+          @Override
+          public float predictProbability(double[] features) {
+            return scoring.predictProbability(features);
+          }
+
+          @Override
+          public int getModelFingerprint() {
+            return scoring.getFingerprint() + 1;
+          }
+
+          @Override
+          public DiabetesPredictor pinned() {
+            return scoring;
+          }
+        };
+    try (PredictionService service = new PredictionService(() -> reloaded, 1, 4)) {
+      double[] contributions = new double[ROW.length + 1];
+      PredictionService.Prediction prediction = service.submit(ROW, contributions, stage -> {});
+      assertEquals(scoring.predictProbability(ROW), prediction.get(10, TimeUnit.SECONDS));
+      assertEquals(scoring.getFingerprint(), prediction.getModelFingerprint());
+      double[] expected = new double[ROW.length + 1];
+      scoring.explain(ROW, expected);
+      assertEquals(expected[ROW.length], contributions[ROW.length]);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SessionTableTest {
+  @Test
+  void removedSessionIsGone() {
+    SessionTable table = new SessionTable(16, 60_000);
+    long id = table.create();
+    long other = table.create();
+    assertEquals(2, table.size());
+
+    assertTrue(table.remove(id));
+    assertNull(table.update(id, session -> session));
+    assertFalse(table.remove(id));
+    assertEquals(1, table.size());
+    assertNotNull(table.update(other, session -> session));
+  }
+
+  @Test
+  void probingFindsSessionsPastARemovedOne() {
+    // Enough sessions that some share probe runs, and few enough that no stripe fills up
+    SessionTable table = new SessionTable(1000, 60_000);
+    long[] ids = new long[500];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = table.create();
+    }
+    for (int i = 0; i < ids.length; i += 2) {
+      assertTrue(table.remove(ids[i]));
+    }
+    for (int i = 0; i < ids.length; i++) {
+      if (i % 2 == 0) {
+        assertNull(table.update(ids[i], session -> session));
+      } else {
+        assertNotNull(table.update(ids[i], session -> session), "session " + i);
+      }
+    }
+    assertEquals(ids.length / 2, table.size());
+  }
+
+  @Test
+  void updateKeepsTheSessionsAnswers() {
+    SessionTable table = new SessionTable(16, 60_000);
+    long id = table.create();
+    table.update(
+        id,
+        session -> {
+          session.begin();
+          session.answerPregnant(false);
+          return null;
+        });
+    table.update(id, session -> session.answerMeasurement("120"));
+    MeasurementConfig next = table.update(id, AssessmentSession::getMeasurement);
+    assertEquals(FeatureSchema.MEASUREMENTS[1], next);
+  }
+}
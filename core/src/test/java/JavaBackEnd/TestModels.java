@@ -0,0 +1,44 @@
+package JavaBackEnd;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+// The bundled model, loaded once from the checked-in JSON, never a local .bin copy; Maven runs the
+// tests from the core module directory
+final class TestModels {
+  static final Path MODEL = Paths.get("..").resolve(XGBoostModel.DEFAULT_PATH);
+
+  // Lower and upper bound of each column, in XGBoostModel.FEATURE_NAMES order
+  private static final double[] LOW = {0, 40, 30, 5, 0.5, 10, 0, 1};
+  private static final double[] HIGH = {17, 400, 130, 60, 300, 70, 3, 100};
+
+  private static XGBoostModel bundled;
+
+  private TestModels() {}
+
+  static synchronized XGBoostModel bundled() {
+    if (bundled == null) {
+      try {
+        bundled = XGBoostModel.loadJson(MODEL);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return bundled;
+  }
+
+  // Uniform rows over the Pima ranges
+  static double[][] randomRows(int count, long seed) {
+    Random random = new Random(seed);
+    double[][] rows = new double[count][LOW.length];
+    for (double[] row : rows) {
+      for (int f = 0; f < row.length; f++) {
+        row[f] = LOW[f] + random.nextDouble() * (HIGH[f] - LOW[f]);
+      }
+    }
+    return rows;
+  }
+}
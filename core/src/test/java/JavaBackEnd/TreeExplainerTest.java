@@ -0,0 +1,162 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Both explanation modes add up to the margin, and TreeSHAP matches Shapley values computed by
+ * brute force over every feature subset, on random rows with some features missing.
+ */
+class TreeExplainerTest {
+  private static final int ROWS = 200;
+  // The margin itself is accumulated in float
+  private static final double SUM_TOLERANCE = 1e-4;
+  private static final double SHAPLEY_TOLERANCE = 1e-9;
+
+  private static XGBoostModel model;
+  private static double[][] rows;
+
+  @BeforeAll
+  static void load() {
+    model = TestModels.bundled();
+    rows = TestModels.randomRows(ROWS, 7);
+    for (int r = 0; r < ROWS; r += 5) {
+      rows[r][r % model.getNumFeatures()] = Double.NaN;
+    }
+  }
+
+  @Test
+  void contributionsSumToTheMargin() {
+    TreeExplainer explainer = new TreeExplainer(model);
+    int n = model.getNumFeatures();
+    double[] shap = new double[n + 1];
+    double[] saabas = new double[n + 1];
+    for (double[] row : rows) {
+      explainer.shap(row, shap);
+      explainer.saabas(row, saabas);
+      double margin = model.predictMargin(row);
+      assertEquals(margin, sum(shap), SUM_TOLERANCE);
+      assertEquals(margin, sum(saabas), SUM_TOLERANCE);
+      assertEquals(explainer.getBias(), shap[n], SHAPLEY_TOLERANCE);
+    }
+  }
+
+  @Test
+  void treeShapMatchesBruteForceShapleyValues() {
+    TreeExplainer explainer = new TreeExplainer(model);
+    double[] shap = new double[model.getNumFeatures() + 1];
+    for (double[] row : rows) {
+      explainer.shap(row, shap);
+      double[] expected = bruteForceShapley(row);
+      for (int f = 0; f < shap.length; f++) {
+        assertEquals(expected[f], shap[f], SHAPLEY_TOLERANCE, "feature " + f);
+      }
+    }
+  }
+
+  @Test
+  void batchSaabasMatchesRows() {
+    TreeExplainer explainer = new TreeExplainer(model);
+    int n = model.getNumFeatures();
+    double[] packed = new double[ROWS * n];
+    for (int r = 0; r < ROWS; r++) {
+      System.arraycopy(rows[r], 0, packed, r * n, n);
+    }
+    double[] batch = new double[ROWS * (n + 1)];
+    explainer.saabas(packed, ROWS, batch);
+    double[] single = new double[n + 1];
+    for (int r = 0; r < ROWS; r++) {
+      explainer.saabas(rows[r], single);
+      for (int f = 0; f <= n; f++) {
+        assertEquals(single[f], batch[r * (n + 1) + f], "row " + r + ", feature " + f);
+      }
+    }
+  }
+
+  @Test
+  void explainingDoesNotPinTheModelToItsThread() throws Exception {
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      WeakReference<XGBoostModel> explained =
+          pool.submit(
+                  () -> {
+                    XGBoostModel replaced = XGBoostModel.loadJson(TestModels.MODEL);
+                    replaced.explain(rows[0], new double[model.getNumFeatures() + 1]);
+                    return new WeakReference<>(replaced);
+                  })
+              .get();
+      // The pool thread is still alive; only it could be holding the model now
+      for (int i = 0; i < 50 && explained.get() != null; i++) {
+        System.gc();
+        Thread.sleep(10);
+      }
+      assertNull(explained.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static double sum(double[] values) {
+    double total = 0;
+    for (double value : values) {
+      total += value;
+    }
+    return total;
+  }
+
+  // Shapley values of E[f(x) | features in S known], by enumerating every subset S
+  private static double[] bruteForceShapley(double[] features) {
+    int n = model.getNumFeatures();
+    float[] row = new float[n];
+    for (int f = 0; f < n; f++) {
+      row[f] = (float) features[f];
+    }
+    double[] value = new double[1 << n];
+    for (int known = 0; known < value.length; known++) {
+      value[known] = model.getBaseMargin();
+      for (int t = 0; t < model.getNumTrees(); t++) {
+        value[known] += conditionalExpectation(model.getTree(t), 0, known, row);
+      }
+    }
+    double[] factorial = new double[n + 1];
+    factorial[0] = 1;
+    for (int i = 1; i <= n; i++) {
+      factorial[i] = factorial[i - 1] * i;
+    }
+    double[] phi = new double[n + 1];
+    for (int f = 0; f < n; f++) {
+      for (int known = 0; known < value.length; known++) {
+        if ((known & (1 << f)) == 0) {
+          int size = Integer.bitCount(known);
+          double weight = factorial[size] * factorial[n - size - 1] / factorial[n];
+          phi[f] += weight * (value[known | 1 << f] - value[known]);
+        }
+      }
+    }
+    phi[n] = value[0];
+    return phi;
+  }
+
+  private static double conditionalExpectation(
+      XGBoostModel.Tree tree, int node, int known, float[] row) {
+    if (tree.isLeaf(node)) {
+      return tree.leafValue(node);
+    }
+    int left = tree.leftChildren[node];
+    int right = tree.rightChildren[node];
+    if ((known & (1 << tree.splitIndices[node])) != 0) {
+      float v = row[tree.splitIndices[node]];
+      boolean goLeft = v < tree.splitConditions[node] || (v != v && tree.defaultLeft[node]);
+      return conditionalExpectation(tree, goLeft ? left : right, known, row);
+    }
+    return (conditionalExpectation(tree, left, known, row) * tree.sumHessian[left]
+            + conditionalExpectation(tree, right, known, row) * tree.sumHessian[right])
+        / tree.sumHessian[node];
+  }
+}
@@ -0,0 +1,82 @@
+package JavaBackEnd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the pure-Java scorer with XGBoost itself on {@code xgboost_parity.csv}: 1,000 rows (the
+ * golden inputs, then random rows over the accepted ranges with some cells left empty for missing)
+ * and the margin and probability XGBoost 2.1.4 gives each. Regenerate the last two columns with
+ * {@code python Model/predict_diabetes.py --parity core/src/test/resources/xgboost_parity.csv}.
+ */
+class XGBoostParityTest {
+  private static final int WIDTH = XGBoostModel.FEATURE_NAMES.length;
+
+  private static double[][] rows;
+  private static float[] margins;
+  private static float[] probabilities;
+
+  @BeforeAll
+  static void readFixture() throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                XGBoostParityTest.class.getResourceAsStream("/xgboost_parity.csv"),
+                StandardCharsets.UTF_8))) {
+      reader.readLine();
+      for (String line; (line = reader.readLine()) != null; ) {
+        lines.add(line);
+      }
+    }
+    rows = new double[lines.size()][WIDTH];
+    margins = new float[lines.size()];
+    probabilities = new float[lines.size()];
+    for (int r = 0; r < lines.size(); r++) {
+      String[] cells = lines.get(r).split(",", -1);
+      for (int f = 0; f < WIDTH; f++) {
+        rows[r][f] = cells[f].isEmpty() ? Double.NaN : Double.parseDouble(cells[f]);
+      }
+      margins[r] = Float.parseFloat(cells[WIDTH]);
+      probabilities[r] = Float.parseFloat(cells[WIDTH + 1]);
+    }
+  }
+
+  @Test
+  void marginsMatchXGBoostBitForBit() {
+    XGBoostModel model = TestModels.bundled();
+    for (int r = 0; r < rows.length; r++) {
+      assertEquals(margins[r], model.predictMargin(rows[r]), "row " + r);
+    }
+  }
+
+  @Test
+  void probabilitiesMatchXGBoostBitForBit() {
+    XGBoostModel model = TestModels.bundled();
+    for (int r = 0; r < rows.length; r++) {
+      assertEquals(probabilities[r], model.predictProbability(rows[r]), "row " + r);
+    }
+  }
+
+  @Test
+  void batchesMatchXGBoostBitForBit() {
+    XGBoostModel model = TestModels.bundled();
+    double[] packed = new double[rows.length * WIDTH];
+    for (int r = 0; r < rows.length; r++) {
+      System.arraycopy(rows[r], 0, packed, r * WIDTH, WIDTH);
+    }
+    float[] out = new float[rows.length];
+    model.predictProbabilities(packed, rows.length, out);
+    for (int r = 0; r < rows.length; r++) {
+      assertEquals(probabilities[r], out[r], "row " + r);
+    }
+  }
+}
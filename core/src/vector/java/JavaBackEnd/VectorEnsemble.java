@@ -0,0 +1,99 @@
+package JavaBackEnd;
+
+import java.util.Arrays;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch scoring with the JDK Vector API: each tree is walked for {@code LANES} rows at once, one
+ * level per iteration.
+ *
+ * <p>Every level gathers the lanes' split features, thresholds and row values, compares them as one
+ * {@link FloatVector} and turns the mask into the next node indices. Lanes that reached a leaf are
+ * masked out until the whole group has. Margins are still summed per row in tree order, so results
+ * match {@link FlatEnsemble} bit for bit.
+ *
+ * <p>Only built with {@code mvn -Pvector} and only used when the JVM runs with {@code --add-modules
+ * jdk.incubator.vector} and {@code -Ddiabetes.engine=vector}; otherwise {@link XGBoostModel} keeps
+ * the scalar engine.
+ */
+final class VectorEnsemble implements BatchMarginScorer {
+  private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Integer> INTS =
+      VectorSpecies.of(int.class, FLOATS.vectorShape());
+  private static final int LANES = FLOATS.length();
+  private static final int BLOCK_ROWS = FlatEnsemble.BLOCK_ROWS;
+
+  private final FlatEnsemble flat;
+  private final int[] defaultLeft;
+
+  VectorEnsemble(FlatEnsemble flat) {
+    if (BLOCK_ROWS % LANES != 0) {
+      throw new IllegalStateException(LANES + " lanes do not divide the block size");
+    }
+    this.flat = flat;
+    // Gathers need an int table; booleans cannot be gathered
+    this.defaultLeft = new int[flat.defaultLeft.length];
+    for (int i = 0; i < defaultLeft.length; i++) {
+      defaultLeft[i] = flat.defaultLeft[i] ? 1 : 0;
+    }
+  }
+
+  @Override
+  public void predictMargins(double[] packedRows, int fromRow, int toRow, float[] out) {
+    flat.checkRange(packedRows, fromRow, toRow, out);
+    int width = flat.numFeatures;
+    // Column-major copy of the block as floats: feature f of row r is at f * BLOCK_ROWS + r
+    float[] block = new float[width * BLOCK_ROWS];
+    float[] margins = new float[BLOCK_ROWS];
+    int[] nodes = new int[LANES];
+    int[] cells = new int[LANES];
+    IntVector lane = IntVector.zero(INTS).addIndex(1);
+
+    for (int start = fromRow; start < toRow; start += BLOCK_ROWS) {
+      int rows = Math.min(BLOCK_ROWS, toRow - start);
+      for (int r = 0; r < rows; r++) {
+        int offset = (start + r) * width;
+        for (int f = 0; f < width; f++) {
+          block[f * BLOCK_ROWS + r] = (float) packedRows[offset + f];
+        }
+      }
+      Arrays.fill(margins, flat.baseMargin);
+
+      for (int root : flat.roots) {
+        // Lanes past the last row score stale data and are never copied out
+        for (int group = 0; group < rows; group += LANES) {
+          IntVector rowIndex = lane.add(group);
+          IntVector node = IntVector.broadcast(INTS, root);
+          while (true) {
+            node.intoArray(nodes, 0);
+            IntVector feature = IntVector.fromArray(INTS, flat.feature, 0, nodes, 0);
+            VectorMask<Integer> split = feature.compare(VectorOperators.GE, 0);
+            if (!split.anyTrue()) {
+              break;
+            }
+            feature.max(0).mul(BLOCK_ROWS).add(rowIndex).intoArray(cells, 0);
+            FloatVector v = FloatVector.fromArray(FLOATS, block, 0, cells, 0);
+            FloatVector threshold = FloatVector.fromArray(FLOATS, flat.value, 0, nodes, 0);
+            VectorMask<Float> missingLeft =
+                IntVector.fromArray(INTS, defaultLeft, 0, nodes, 0)
+                    .compare(VectorOperators.NE, 0)
+                    .cast(FLOATS)
+                    .and(v.test(VectorOperators.IS_NAN));
+            VectorMask<Integer> goRight =
+                v.compare(VectorOperators.LT, threshold).or(missingLeft).not().cast(INTS);
+            IntVector child = IntVector.fromArray(INTS, flat.left, 0, nodes, 0).add(1, goRight);
+            node = node.blend(child, split);
+          }
+          FloatVector.fromArray(FLOATS, margins, group)
+              .add(FloatVector.fromArray(FLOATS, flat.value, 0, nodes, 0))
+              .intoArray(margins, group);
+        }
+      }
+      System.arraycopy(margins, 0, out, start, rows);
+    }
+  }
+}
@@ -0,0 +1,911 @@
+package JavaFrontEnd;
+
+import static JavaBackEnd.FeatureSchema.MEASUREMENTS;
+
+import JavaBackEnd.AssessmentLog;
+import JavaBackEnd.AssessmentSession;
+import JavaBackEnd.BinaryModelFormat;
+import JavaBackEnd.BulkScorer;
+import JavaBackEnd.DiabetesPredictor;
+import JavaBackEnd.FeatureSchema;
+import JavaBackEnd.FeatureVector;
+import JavaBackEnd.MeasurementConfig;
+import JavaBackEnd.Metrics;
+import JavaBackEnd.MicroBatcher;
+import JavaBackEnd.ModelRegistry;
+import JavaBackEnd.PredictionServer;
+import JavaBackEnd.PredictionService;
+import JavaBackEnd.PythonWorkerPool;
+import JavaBackEnd.XGBoostModel;
+import java.awt.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import javax.swing.*;
+
+public class DiabetesAssistant extends JFrame {
+  private CardLayout cardLayout;
+  private JPanel cardPanel;
+  // The question flow and its answers; the cards only show where the session is
+  private final AssessmentSession session = new AssessmentSession();
+  private final FeatureVector features = session.getFeatures();
+  // Features filled in by the imputer, bit i for feature i, recorded with the assessment
+  private int imputedMask;
+  // Opened in the background; completes with null if it can't be, the assistant works without it
+  private final CompletableFuture<AssessmentLog> assessmentLog;
+  private Color bgColor = new Color(245, 248, 250);
+  private Color primaryColor = new Color(41, 128, 185);
+  private Color accentColor = new Color(52, 152, 219);
+  private Color successColor = new Color(46, 204, 113);
+  private Color warningColor = new Color(231, 76, 60);
+
+  // Scoring runs off the EDT; the model is preloaded on the service's thread while the frame is
+  // built
+  private final PredictionService predictionService =
+      new PredictionService(DiabetesAssistant::createPredictor, 1, 4);
+  private CompletableFuture<Float> pendingPrediction;
+  private JProgressBar progressBar;
+  private JLabel progressLabel;
+  private JLabel finalResultMessage;
+  // Cards not built yet, by name; each is built the first time it is shown
+  private final Map<String, Supplier<JPanel>> pendingCards = new HashMap<>();
+
+  public DiabetesAssistant(CompletableFuture<AssessmentLog> assessmentLog) {
+    this.assessmentLog = assessmentLog;
+    setTitle("Health Assistant");
+    setSize(900, 650);
+    setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    setLocationRelativeTo(null);
+
+    cardLayout = new CardLayout();
+    cardPanel = new JPanel(cardLayout);
+    cardPanel.setBackground(bgColor);
+    predictionService.preload(typicalRow());
+
+    // Only the welcome card is built before the first frame
+    pendingCards.put("welcome", this::createWelcomePanel);
+    pendingCards.put("diabetes_check", this::createDiabetesCheckPanel);
+    pendingCards.put("test_intro", this::createTestIntroPanel);
+    pendingCards.put("pregnancy", this::createPregnancyPanel);
+    pendingCards.put("pregnancy_times", this::createPregnancyTimesPanel);
+    for (MeasurementConfig config : MEASUREMENTS) {
+      pendingCards.put(config.name, () -> createMeasurementPanel(config));
+      pendingCards.put("instructions_" + config.name, () -> createInstructionsPanel(config));
+    }
+    pendingCards.put("result", this::createResultPanel);
+    pendingCards.put("result_final", this::createFinalResultPanel);
+
+    add(cardPanel);
+    showCard("welcome");
+    setVisible(true);
+  }
+
+  private JPanel createWelcomePanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setName("welcome");
+    panel.setBackground(bgColor);
+    panel.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
+
+    JLabel title = new JLabel("Welcome to Your Health Companion");
+    title.setFont(new Font("SansSerif", Font.BOLD, 28));
+    title.setForeground(primaryColor);
+    title.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JLabel message =
+        new JLabel(
+            "<html><div style='text-align: center;'>Hi there! I'm your personal health"
+                + " assistant.<br>How are you feeling today?</div></html>");
+    message.setFont(new Font("SansSerif", Font.PLAIN, 20));
+    message.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 30, 20));
+    buttonPanel.setBackground(bgColor);
+
+    RoundedButton greatBtn = new RoundedButton("Feeling great!");
+    styleButton(greatBtn, successColor);
+    greatBtn.addActionListener(
+        e -> {
+          showCard("diabetes_check");
+        });
+
+    RoundedButton notGoodBtn = new RoundedButton("Not so good");
+    styleButton(notGoodBtn, warningColor);
+    notGoodBtn.addActionListener(
+        e -> {
+          showCard("diabetes_check");
+        });
+
+    buttonPanel.add(greatBtn);
+    buttonPanel.add(notGoodBtn);
+
+    panel.add(title, BorderLayout.NORTH);
+    panel.add(message, BorderLayout.CENTER);
+    panel.add(buttonPanel, BorderLayout.SOUTH);
+
+    return panel;
+  }
+
+  private JPanel createDiabetesCheckPanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setName("diabetes_check");
+    panel.setBackground(bgColor);
+    panel.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
+
+    JLabel message =
+        new JLabel(
+            "<html><div style='text-align: center;'>Taking care of your health is"
+                + " important.<br>Would you like to check your diabetes risk today?</div></html>");
+    message.setFont(new Font("SansSerif", Font.PLAIN, 20));
+    message.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JLabel quote =
+        new JLabel(
+            "<html><div style='text-align: center;'><i>\"Prevention is better than"
+                + " cure.\"</i></div></html>");
+    quote.setFont(new Font("SansSerif", Font.ITALIC, 16));
+    quote.setForeground(new Color(100, 100, 100));
+    quote.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 30, 20));
+    buttonPanel.setBackground(bgColor);
+
+    RoundedButton yesBtn = new RoundedButton("Yes, let's do it");
+    styleButton(yesBtn, successColor);
+    yesBtn.addActionListener(
+        e -> {
+          showCard("test_intro");
+        });
+
+    RoundedButton noBtn = new RoundedButton("Not now");
+    styleButton(noBtn, warningColor);
+    noBtn.addActionListener(e -> showCard("welcome"));
+
+    buttonPanel.add(yesBtn);
+    buttonPanel.add(noBtn);
+
+    addBackButton(panel, "welcome");
+    addExitButton(panel);
+
+    panel.add(quote, BorderLayout.NORTH);
+    panel.add(message, BorderLayout.CENTER);
+    panel.add(buttonPanel, BorderLayout.SOUTH);
+
+    return panel;
+  }
+
+  private JPanel createTestIntroPanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setBackground(bgColor);
+    panel.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
+
+    JLabel title = new JLabel("Quick & Easy Check");
+    title.setFont(new Font("SansSerif", Font.BOLD, 24));
+    title.setForeground(primaryColor);
+    title.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JLabel message =
+        new JLabel(
+            "<html><div style='text-align: center; padding: 0 50px;'>"
+                + "Great choice! This will only take a few minutes.<br><br>"
+                + "We'll ask for some simple health measurements<br>"
+                + "that you can easily check at home or with your doctor."
+                + "</div></html>");
+    message.setFont(new Font("SansSerif", Font.PLAIN, 18));
+    message.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JLabel tip =
+        new JLabel(
+            "<html><div style='text-align: center; color: #2E86C1;'>"
+                + "Tip: Have your recent health numbers handy if possible!"
+                + "</div></html>");
+    tip.setFont(new Font("SansSerif", Font.BOLD | Font.ITALIC, 14));
+    tip.setHorizontalAlignment(SwingConstants.CENTER);
+
+    RoundedButton startBtn = new RoundedButton("I'm ready to begin!");
+    styleButton(startBtn, accentColor);
+    startBtn.setPreferredSize(new Dimension(250, 50));
+    startBtn.addActionListener(
+        e -> {
+          session.begin();
+          showSessionStep();
+        });
+
+    JPanel buttonPanel = new JPanel();
+    buttonPanel.setBackground(bgColor);
+    buttonPanel.add(startBtn);
+
+    addBackButton(panel, "diabetes_check");
+    addExitButton(panel);
+
+    panel.add(title, BorderLayout.NORTH);
+    panel.add(message, BorderLayout.CENTER);
+    panel.add(tip, BorderLayout.SOUTH);
+    panel.add(buttonPanel, BorderLayout.SOUTH);
+    return panel;
+  }
+
+  private JPanel createPregnancyPanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setBackground(bgColor);
+    panel.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
+
+    JLabel question =
+        new JLabel(
+            "<html><div style='text-align: center;'>For our health assessment,<br>have you ever"
+                + " been pregnant?</div></html>");
+    question.setFont(new Font("SansSerif", Font.PLAIN, 20));
+    question.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 30, 20));
+    buttonPanel.setBackground(bgColor);
+
+    RoundedButton yesBtn = new RoundedButton("Yes");
+    styleButton(yesBtn, accentColor);
+    yesBtn.addActionListener(
+        e -> {
+          session.answerPregnant(true);
+          showSessionStep();
+        });
+
+    RoundedButton noBtn = new RoundedButton("No");
+    styleButton(noBtn, accentColor);
+    noBtn.addActionListener(
+        e -> {
+          session.answerPregnant(false);
+          showSessionStep();
+        });
+
+    buttonPanel.add(yesBtn);
+    buttonPanel.add(noBtn);
+
+    addBackButton(panel);
+    addExitButton(panel);
+
+    panel.add(question, BorderLayout.CENTER);
+    panel.add(buttonPanel, BorderLayout.SOUTH);
+
+    return panel;
+  }
+
+  private JPanel createPregnancyTimesPanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setBackground(bgColor);
+    panel.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
+
+    JLabel question =
+        new JLabel(
+            "<html><div style='text-align: center;'>How many times have you been"
+                + " pregnant?</div></html>");
+    question.setFont(new Font("SansSerif", Font.PLAIN, 20));
+    question.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JPanel inputPanel = new JPanel();
+    inputPanel.setBackground(bgColor);
+    inputPanel.setLayout(new BoxLayout(inputPanel, BoxLayout.Y_AXIS));
+
+    JTextField timesField = new JTextField(10);
+    timesField.setMaximumSize(new Dimension(200, 40));
+    timesField.setFont(new Font("SansSerif", Font.PLAIN, 18));
+    timesField.setHorizontalAlignment(JTextField.CENTER);
+
+    JLabel example = new JLabel("(e.g., 1, 2, 3...)");
+    example.setFont(new Font("SansSerif", Font.ITALIC, 14));
+    example.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+    inputPanel.add(Box.createVerticalStrut(20));
+    inputPanel.add(timesField);
+    inputPanel.add(Box.createVerticalStrut(10));
+    inputPanel.add(example);
+
+    RoundedButton nextBtn = new RoundedButton("Continue");
+    styleButton(nextBtn, accentColor);
+    nextBtn.addActionListener(
+        e -> {
+          AssessmentSession.Outcome outcome = session.answerPregnancies(timesField.getText());
+          if (outcome == AssessmentSession.Outcome.ACCEPTED) {
+            showSessionStep();
+          } else {
+            JOptionPane.showMessageDialog(
+                this, outcome.message(null), "Invalid Input", JOptionPane.WARNING_MESSAGE);
+          }
+        });
+
+    addBackButton(panel);
+    addExitButton(panel);
+
+    panel.add(question, BorderLayout.NORTH);
+    panel.add(inputPanel, BorderLayout.CENTER);
+    panel.add(nextBtn, BorderLayout.SOUTH);
+
+    return panel;
+  }
+
+  private JPanel createMeasurementPanel(MeasurementConfig config) {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setBackground(bgColor);
+    panel.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
+
+    String rangeText =
+        String.format("(Normal range: %.0f-%.0f %s)", config.min, config.max, config.unit);
+    JLabel question =
+        new JLabel(
+            "<html><div style='text-align: center;'>What is your "
+                + config.displayName
+                + "?<br>"
+                + rangeText
+                + "</div></html>");
+    question.setFont(new Font("SansSerif", Font.PLAIN, 20));
+    question.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JPanel inputPanel = new JPanel();
+    inputPanel.setBackground(bgColor);
+    inputPanel.setLayout(new BoxLayout(inputPanel, BoxLayout.Y_AXIS));
+
+    JTextField valueField = new JTextField(10);
+    valueField.setMaximumSize(new Dimension(200, 40));
+    valueField.setFont(new Font("SansSerif", Font.PLAIN, 18));
+    valueField.setHorizontalAlignment(JTextField.CENTER);
+
+    inputPanel.add(Box.createVerticalStrut(20));
+    inputPanel.add(valueField);
+
+    RoundedButton nextBtn = new RoundedButton("Continue");
+    styleButton(nextBtn, accentColor);
+
+    RoundedButton dontKnowBtn = new RoundedButton("I'm not sure");
+    styleButton(dontKnowBtn, new Color(149, 165, 166));
+    dontKnowBtn.addActionListener(e -> showCard("instructions_" + config.name));
+
+    JPanel buttonPanel = new JPanel();
+    buttonPanel.setBackground(bgColor);
+    buttonPanel.add(dontKnowBtn);
+    buttonPanel.add(Box.createHorizontalStrut(20));
+    buttonPanel.add(nextBtn);
+
+    nextBtn.addActionListener(
+        e -> {
+          AssessmentSession.Outcome outcome = session.answerMeasurement(valueField.getText());
+          switch (outcome) {
+            case ACCEPTED:
+              showSessionStep();
+              break;
+            case SKIPPED:
+              JOptionPane.showMessageDialog(
+                  this, outcome.message(config), "Information", JOptionPane.INFORMATION_MESSAGE);
+              showSessionStep();
+              break;
+            default:
+              JOptionPane.showMessageDialog(
+                  this, outcome.message(config), "Invalid Input", JOptionPane.WARNING_MESSAGE);
+          }
+        });
+
+    addBackButton(panel);
+    addExitButton(panel);
+
+    panel.add(question, BorderLayout.NORTH);
+    panel.add(inputPanel, BorderLayout.CENTER);
+    panel.add(buttonPanel, BorderLayout.SOUTH);
+
+    return panel;
+  }
+
+  private JPanel createInstructionsPanel(MeasurementConfig config) {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setBackground(bgColor);
+    panel.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
+
+    JLabel title = new JLabel("Measurement Help");
+    title.setFont(new Font("SansSerif", Font.BOLD, 24));
+    title.setForeground(primaryColor);
+    title.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JTextPane instructions = new JTextPane();
+    instructions.setContentType("text/html");
+    instructions.setText(config.instructions);
+    instructions.setEditable(false);
+    instructions.setBackground(bgColor);
+    instructions.setFont(new Font("SansSerif", Font.PLAIN, 16));
+
+    RoundedButton backBtn = new RoundedButton("← Back to Question");
+    styleButton(backBtn, accentColor);
+    backBtn.addActionListener(e -> showCard(config.name));
+
+    addExitButton(panel);
+
+    panel.add(title, BorderLayout.NORTH);
+    panel.add(new JScrollPane(instructions), BorderLayout.CENTER);
+    panel.add(backBtn, BorderLayout.SOUTH);
+
+    return panel;
+  }
+
+  private JPanel createResultPanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setBackground(bgColor);
+    panel.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
+
+    JLabel title = new JLabel("Assessment Complete!");
+    title.setFont(new Font("SansSerif", Font.BOLD, 28));
+    title.setForeground(primaryColor);
+    title.setHorizontalAlignment(SwingConstants.CENTER);
+
+    JLabel message =
+        new JLabel(
+            "<html><div style='text-align: center; padding: 20px;'>"
+                + "Thank you for providing your health information.<br><br>"
+                + "We're now analyzing your data with our medical AI...<br>"
+                + "This usually takes just a moment."
+                + "</div></html>");
+    message.setFont(new Font("SansSerif", Font.PLAIN, 18));
+    message.setHorizontalAlignment(SwingConstants.CENTER);
+
+    progressBar = new JProgressBar(0, 100);
+    progressBar.setStringPainted(true);
+    progressBar.setPreferredSize(new Dimension(300, 20));
+
+    progressLabel = new JLabel(" ");
+    progressLabel.setFont(new Font("SansSerif", Font.ITALIC, 14));
+    progressLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+    progressBar.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+    JPanel progressPanel = new JPanel();
+    progressPanel.setBackground(bgColor);
+    progressPanel.setLayout(new BoxLayout(progressPanel, BoxLayout.Y_AXIS));
+    progressPanel.add(progressLabel);
+    progressPanel.add(Box.createVerticalStrut(5));
+    progressPanel.add(progressBar);
+
+    addExitButton(panel);
+
+    panel.add(title, BorderLayout.NORTH);
+    panel.add(message, BorderLayout.CENTER);
+    panel.add(progressPanel, BorderLayout.SOUTH);
+
+    return panel;
+  }
+
+  // Helper methods
+  private void showCard(String name) {
+    Supplier<JPanel> pending = pendingCards.remove(name);
+    if (pending != null) {
+      cardPanel.add(pending.get(), name);
+    }
+    cardLayout.show(cardPanel, name);
+  }
+
+  // Builds every card not shown yet, for the CDS training run
+  private void buildAllCards() {
+    for (String name : new ArrayList<>(pendingCards.keySet())) {
+      showCard(name);
+    }
+    showCard("welcome");
+  }
+
+  private void styleButton(RoundedButton button, Color bgColor) {
+    button.setBackground(bgColor);
+    button.setForeground(Color.WHITE);
+    button.setFont(new Font("SansSerif", Font.BOLD, 16));
+    button.setFocusPainted(false);
+    button.setPreferredSize(new Dimension(180, 45));
+  }
+
+  private void addBackButton(JPanel panel, String backScreen) {
+    addBackButton(panel, () -> showCard(backScreen));
+  }
+
+  // Back one question in the session
+  private void addBackButton(JPanel panel) {
+    addBackButton(
+        panel,
+        () -> {
+          session.back();
+          showSessionStep();
+        });
+  }
+
+  private void addBackButton(JPanel panel, Runnable goBack) {
+    RoundedButton backBtn = new RoundedButton("← Back");
+    styleButton(backBtn, new Color(149, 165, 166));
+    backBtn.addActionListener(
+        e -> {
+          cancelPrediction();
+          goBack.run();
+        });
+
+    JPanel topLeft = new JPanel(new FlowLayout(FlowLayout.LEFT));
+    topLeft.setBackground(bgColor);
+    topLeft.add(backBtn);
+
+    panel.add(topLeft, BorderLayout.WEST); // Add to the WEST or NORTHWEST region
+  }
+
+  private void addExitButton(JPanel panel) {
+    RoundedButton exitBtn = new RoundedButton("Exit");
+    styleButton(exitBtn, new Color(149, 165, 166));
+    exitBtn.addActionListener(
+        e -> {
+          cancelPrediction();
+          session.restart();
+          showCard("welcome");
+        });
+
+    JPanel topRight = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+    topRight.setBackground(bgColor);
+    topRight.add(exitBtn);
+
+    panel.add(topRight, BorderLayout.EAST); // Add to the EAST or NORTHEAST region
+  }
+
+  // Custom Rounded Button
+  static class RoundedButton extends JButton {
+    public RoundedButton(String text) {
+      super(text);
+      setContentAreaFilled(false);
+      setFocusPainted(false);
+      setBorderPainted(false);
+      setOpaque(false);
+      setForeground(Color.WHITE);
+      setFont(new Font("SansSerif", Font.BOLD, 16));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+      Graphics2D g2 = (Graphics2D) g.create();
+      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+      if (getModel().isArmed()) {
+        g2.setColor(getBackground().darker());
+      } else {
+        g2.setColor(getBackground());
+      }
+
+      g2.fillRoundRect(0, 0, getWidth(), getHeight(), 25, 25);
+      super.paintComponent(g2);
+      g2.dispose();
+    }
+  }
+
+  // Shows the card for the session's current question, or scores a finished assessment
+  private void showSessionStep() {
+    switch (session.getStep()) {
+      case WELCOME:
+        showCard("test_intro");
+        break;
+      case PREGNANCY:
+        showCard("pregnancy");
+        break;
+      case PREGNANCY_COUNT:
+        showCard("pregnancy_times");
+        break;
+      case MEASUREMENT:
+        showCard(session.getMeasurement().name);
+        break;
+      case RESULT:
+        if (checkAndHandleMissingValues()) {
+          startPrediction();
+        } else {
+          JOptionPane.showMessageDialog(
+              this,
+              "Can't predict from the given values. The model needs all the information.",
+              "Error",
+              JOptionPane.WARNING_MESSAGE);
+          session.restart();
+          showCard("welcome");
+        }
+        break;
+    }
+  }
+
+  // 🆕 Ask about missing data before result
+  private boolean checkAndHandleMissingValues() {
+    imputedMask = 0;
+    if (FeatureSchema.hasMissingValues(features)) {
+      int choice =
+          JOptionPane.showConfirmDialog(
+              this,
+              "Some values are missing. Let the assistant estimate them and continue?",
+              "Missing Data",
+              JOptionPane.YES_NO_OPTION);
+      if (choice == JOptionPane.YES_OPTION) {
+        imputedMask = features.missingMask();
+        FeatureSchema.fillMissingWithDefaults(features);
+      } else {
+        return false;
+      }
+    }
+
+    //  Always go to result panel after handling
+    showCard("result");
+    return true;
+  }
+
+  private CompletableFuture<Float> callModel(double[] contributions) {
+    double[] row;
+    try {
+      // A copy, so later edits on the EDT can't race with the pool thread
+      row = features.toArray();
+    } catch (IllegalStateException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    PredictionService.Prediction future =
+        predictionService.submit(
+            row, contributions, stage -> SwingUtilities.invokeLater(() -> showProgress(stage)));
+    // On the pool thread, which only hands the record to the log's ring. The fingerprint is the
+    // scoring model's, even if the registry has reloaded since
+    int imputed = imputedMask;
+    future.thenAcceptBoth(
+        assessmentLog,
+        (probability, log) -> {
+          if (log != null) {
+            log.append(
+                AssessmentLog.Source.ASSISTANT,
+                future.getModelFingerprint(),
+                row,
+                0,
+                imputed,
+                probability);
+          }
+        });
+    return future;
+  }
+
+  // Show the result card as soon as the model answers; stale or cancelled results are dropped
+  private void startPrediction() {
+    cancelPrediction();
+    progressBar.setValue(0);
+    progressLabel.setText("Preparing your data...");
+
+    // Filled on the pool thread before the future completes
+    double[] contributions = new double[FeatureVector.WIDTH + 1];
+    CompletableFuture<Float> future = callModel(contributions);
+    pendingPrediction = future;
+    future.whenComplete(
+        (probability, error) ->
+            SwingUtilities.invokeLater(
+                () -> {
+                  if (pendingPrediction != future || future.isCancelled()) {
+                    return;
+                  }
+                  pendingPrediction = null;
+                  progressBar.setValue(100);
+                  showCard("result_final");
+                  finalResultMessage.setText(
+                      error == null
+                          ? resultMessage(probability, contributions)
+                          : failureMessage(error));
+                }));
+  }
+
+  private void cancelPrediction() {
+    if (pendingPrediction != null) {
+      pendingPrediction.cancel(true);
+      pendingPrediction = null;
+    }
+  }
+
+  private void showProgress(PredictionService.Stage stage) {
+    switch (stage) {
+      case QUEUED:
+        progressBar.setValue(10);
+        progressLabel.setText("Waiting for the model...");
+        break;
+      case LOADING_MODEL:
+        progressBar.setValue(30);
+        progressLabel.setText("Loading the model...");
+        break;
+      case SCORING:
+        progressBar.setValue(70);
+        progressLabel.setText("Analyzing your data...");
+        break;
+      case EXPLAINING:
+        progressBar.setValue(90);
+        progressLabel.setText("Finding what mattered most...");
+        break;
+    }
+  }
+
+  private static String failureMessage(Throwable error) {
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    if (cause instanceof IllegalStateException) {
+      return cause.getMessage();
+    }
+    return "The model has failed to predict.";
+  }
+
+  // In-JVM scorer by default, optionally behind a MicroBatcher; -Ddiabetes.python=true uses a
+  // persistent Python worker instead
+  private static DiabetesPredictor createPredictor() throws IOException {
+    if (Boolean.getBoolean("diabetes.python")) {
+      return new PythonWorkerPool(
+          System.getProperty("diabetes.python.command", "python"),
+          PythonWorkerPool.DEFAULT_SCRIPT,
+          1,
+          10_000);
+    }
+    ModelRegistry registry = ModelRegistry.openDefault();
+    registry.watch();
+    MicroBatcher batcher = MicroBatcher.fromProperties(registry::current);
+    return batcher != null ? batcher : registry;
+  }
+
+  // Mid-range answers to every question, to warm the model up with
+  private static double[] typicalRow() {
+    FeatureVector row = new FeatureVector();
+    row.set(FeatureVector.PREGNANCIES, 0);
+    for (MeasurementConfig config : MEASUREMENTS) {
+      row.set(config, (config.min + config.max) / 2);
+    }
+    return row.toArray();
+  }
+
+  // Risk as a percentage, with advice for the label at the configured threshold
+  private static String resultMessage(float probability, double[] contributions) {
+    String risk =
+        String.format(
+                "<br><br>Estimated risk: <b>%.0f%%</b> (we flag %.0f%% and above)",
+                100 * probability, 100 * XGBoostModel.getThreshold())
+            + topContributors(contributions);
+    if (XGBoostModel.toLabel(probability) == 1) {
+      return "<html><div style='text-align: center;'>⚠️ Based on the data, there's a high chance of"
+          + " diabetes.<br>Please consult a healthcare professional soon.<br><br><b>Tip:</b>"
+          + " Monitor your glucose, exercise regularly, and maintain a healthy diet."
+          + risk
+          + "</div></html>";
+    }
+    return "<html><div style='text-align: center;'>🎉 Your numbers look good!<br>"
+        + "Keep up with regular check-ups and healthy living."
+        + risk
+        + "</div></html>";
+  }
+
+  // The measurements that moved the risk most, largest first; empty without an explanation
+  private static String topContributors(double[] contributions) {
+    Integer[] order = new Integer[FeatureVector.WIDTH];
+    for (int f = 0; f < order.length; f++) {
+      if (Double.isNaN(contributions[f])) {
+        return "";
+      }
+      order[f] = f;
+    }
+    Arrays.sort(
+        order, (a, b) -> Double.compare(Math.abs(contributions[b]), Math.abs(contributions[a])));
+    StringBuilder text = new StringBuilder("<br><br>What mattered most:");
+    for (int i = 0; i < 3 && contributions[order[i]] != 0; i++) {
+      int f = order[i];
+      String name =
+          f == FeatureVector.PREGNANCIES
+              ? "number of pregnancies"
+              : MEASUREMENTS[f - 1].displayName;
+      text.append("<br>")
+          .append(contributions[f] > 0 ? "▲ " : "▼ ")
+          .append(name)
+          .append(contributions[f] > 0 ? " (raised the risk)" : " (lowered the risk)");
+    }
+    return text.toString();
+  }
+
+  // Built once; each prediction only replaces the message
+  private JPanel createFinalResultPanel() {
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setBackground(bgColor);
+    panel.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
+
+    JLabel title = new JLabel("Your Health Assessment Result");
+    title.setFont(new Font("SansSerif", Font.BOLD, 26));
+    title.setForeground(primaryColor);
+    title.setHorizontalAlignment(SwingConstants.CENTER);
+
+    finalResultMessage = new JLabel(" ");
+    finalResultMessage.setFont(new Font("SansSerif", Font.PLAIN, 18));
+    finalResultMessage.setHorizontalAlignment(SwingConstants.CENTER);
+
+    RoundedButton restartBtn = new RoundedButton("↩ Restart");
+    styleButton(restartBtn, accentColor);
+    restartBtn.addActionListener(
+        e -> {
+          session.restart();
+          showCard("welcome");
+        });
+
+    JPanel bottomPanel = new JPanel();
+    bottomPanel.setBackground(bgColor);
+    bottomPanel.add(restartBtn);
+
+    panel.add(title, BorderLayout.NORTH);
+    panel.add(finalResultMessage, BorderLayout.CENTER);
+    panel.add(bottomPanel, BorderLayout.SOUTH);
+
+    return panel;
+  }
+
+  public static void main(String[] args) throws Exception {
+    // Headless modes: --serve [port], --score input.csv output.csv [rejects.csv] and
+    // --convert-model [model.json] [model.bin]; --warm-up is the CDS training run
+    if (args.length > 0 && args[0].equals("--serve")) {
+      PredictionServer.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--score")) {
+      BulkScorer.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--convert-model")) {
+      BinaryModelFormat.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--warm-up")) {
+      warmUp();
+      return;
+    }
+
+    // Off the EDT and off the path to the first frame: the log's recovery scan and the platform
+    // MBean server take a few hundred ms between them
+    CompletableFuture<AssessmentLog> assessmentLog = new CompletableFuture<>();
+    Thread opener =
+        new Thread(
+            () -> {
+              try {
+                assessmentLog.complete(AssessmentLog.openDefault().closeOnShutdown());
+              } catch (IOException e) {
+                System.err.println("Assessments won't be logged: " + e.getMessage());
+                assessmentLog.complete(null);
+              }
+              Metrics.registerMBean();
+            },
+            "assistant-startup");
+    opener.setDaemon(true);
+    opener.start();
+    SwingUtilities.invokeLater(
+        () -> {
+          DiabetesAssistant app = new DiabetesAssistant(assessmentLog);
+          app.setVisible(true);
+        });
+  }
+
+  /**
+   * The training run for the CDS archive built by the swing-ui {@code cds} profile: shows the
+   * frame, builds every card and makes one prediction, printing how long after JVM start each was
+   * ready, then exits. Nothing is logged. Without a display there is no frame, so only the Swing
+   * components the cards are made of are created.
+   */
+  private static void warmUp() throws Exception {
+    PredictionService service;
+    if (GraphicsEnvironment.isHeadless()) {
+      JLabel label = new JLabel("<html><div style='text-align: center;'>Warm-up</div></html>");
+      label.setFont(new Font("SansSerif", Font.PLAIN, 20));
+      JTextPane pane = new JTextPane();
+      pane.setContentType("text/html");
+      pane.setText("<p>Warm-up</p>");
+      new JScrollPane(pane);
+      new RoundedButton("Warm-up");
+      new JTextField(10);
+      new JProgressBar(0, 100);
+      new JPanel(new CardLayout());
+      service = new PredictionService(DiabetesAssistant::createPredictor, 1, 4);
+      service.preload(typicalRow());
+    } else {
+      DiabetesAssistant[] app = new DiabetesAssistant[1];
+      SwingUtilities.invokeAndWait(
+          () -> app[0] = new DiabetesAssistant(CompletableFuture.completedFuture(null)));
+      service = app[0].predictionService;
+      System.out.println("First frame after " + uptimeMillis() + " ms");
+      SwingUtilities.invokeAndWait(app[0]::buildAllCards);
+      System.out.println("Every card built after " + uptimeMillis() + " ms");
+    }
+    // Queued behind the preload, as a user's first prediction would be
+    service.submit(typicalRow(), new double[FeatureVector.WIDTH + 1], stage -> {}).get();
+    System.out.println("First prediction after " + uptimeMillis() + " ms");
+    System.exit(0);
+  }
+
+  private static long uptimeMillis() {
+    return ManagementFactory.getRuntimeMXBean().getUptime();
+  }
+}